@@ -0,0 +1,120 @@
+package de.amr.maze.alg.batch;
+
+import static de.amr.maze.alg.core.GridNeighborhood.randomDir;
+
+import java.util.Random;
+
+import de.amr.maze.alg.core.GridNeighborhood;
+import de.amr.maze.alg.core.UnionFind;
+
+/**
+ * Maze generation algorithms supported by the {@link BatchMazeGenerator}. These implementations work
+ * directly on the {@link MazeBatch} buffer and the scratch memory of the worker thread, they do not
+ * allocate memory per maze.
+ *
+ * @author Armin Reichert
+ */
+public enum BatchAlgorithm {
+
+	/** Random depth-first traversal ("recursive backtracker"), see {@code IterativeDFS}. */
+	DFS {
+
+		@Override
+		void generate(MazeBatch batch, int maze, BatchScratch scratch, Random rnd) {
+			GridNeighborhood nh = scratch.neighborhood;
+			int[] stack = scratch.stack;
+			scratch.clearMarks();
+			int top = 0;
+			stack[0] = rnd.nextInt(nh.numCells());
+			scratch.setMarked(stack[0]);
+			while (top >= 0) {
+				int cell = stack[top];
+				int unvisited = 0;
+				for (int dirs = nh.validDirs(cell); dirs != 0; dirs &= dirs - 1) {
+					int dir = Integer.numberOfTrailingZeros(dirs);
+					if (!scratch.isMarked(nh.neighbor(cell, dir))) {
+						unvisited |= 1 << dir;
+					}
+				}
+				if (unvisited == 0) {
+					--top;
+				}
+				else {
+					int dir = randomDir(unvisited, rnd);
+					int neighbor = nh.neighbor(cell, dir);
+					batch.connect(maze, cell, dir, neighbor);
+					scratch.setMarked(neighbor);
+					stack[++top] = neighbor;
+				}
+			}
+		}
+	},
+
+	/** Kruskal's minimum spanning tree algorithm with random edge order, see {@code KruskalMST}. */
+	KRUSKAL {
+
+		@Override
+		void generate(MazeBatch batch, int maze, BatchScratch scratch, Random rnd) {
+			GridNeighborhood nh = scratch.neighborhood;
+			int[] edges = scratch.edges();
+			UnionFind forest = scratch.forest;
+			forest.clear();
+			// start each maze from the same edge order, so the maze depends only on its random numbers
+			for (int i = edges.length - 1; i > 0; --i) {
+				int j = rnd.nextInt(i + 1);
+				int tmp = edges[i];
+				edges[i] = edges[j];
+				edges[j] = tmp;
+			}
+			for (int i = 0; i < edges.length && forest.size() > 1; ++i) {
+				int cell = nh.edgeCell(edges[i]), dir = nh.edgeDir(edges[i]);
+				int neighbor = nh.neighbor(cell, dir);
+				if (forest.union(cell, neighbor)) {
+					batch.connect(maze, cell, dir, neighbor);
+				}
+			}
+		}
+	},
+
+	/** Wilson's uniform spanning tree algorithm, see {@code WilsonUST}. */
+	WILSON {
+
+		@Override
+		void generate(MazeBatch batch, int maze, BatchScratch scratch, Random rnd) {
+			GridNeighborhood nh = scratch.neighborhood;
+			byte[] walkDir = scratch.walkDir;
+			scratch.clearMarks();
+			scratch.setMarked(rnd.nextInt(nh.numCells()));
+			// the order of the walk start cells does not affect the distribution of the spanning tree
+			for (int start = 0; start < nh.numCells(); ++start) {
+				int cell = start;
+				while (!scratch.isMarked(cell)) {
+					int dir = randomDir(nh.validDirs(cell), rnd);
+					walkDir[cell] = (byte) dir;
+					cell = nh.neighbor(cell, dir);
+				}
+				cell = start;
+				while (!scratch.isMarked(cell)) {
+					int neighbor = nh.neighbor(cell, walkDir[cell]);
+					scratch.setMarked(cell);
+					batch.connect(maze, cell, walkDir[cell], neighbor);
+					cell = neighbor;
+				}
+			}
+		}
+	};
+
+	/**
+	 * Generates the given maze of the batch. The maze must be empty.
+	 *
+	 * @param batch
+	 *                  maze buffer
+	 * @param maze
+	 *                  maze index
+	 * @param scratch
+	 *                  scratch memory of the calling thread
+	 * @param rnd
+	 *                  random number generator
+	 */
+	abstract void generate(MazeBatch batch, int maze, BatchScratch scratch, Random rnd);
+}
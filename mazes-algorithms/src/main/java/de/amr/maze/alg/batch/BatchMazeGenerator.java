@@ -0,0 +1,122 @@
+package de.amr.maze.alg.batch;
+
+import java.util.concurrent.ForkJoinPool;
+
+import de.amr.maze.alg.core.GridNeighborhood;
+import de.amr.maze.alg.core.MazeRandom;
+import de.amr.maze.alg.core.ParallelLoop;
+import de.amr.maze.alg.core.TopologyCache;
+
+/**
+ * Generates batches of many small mazes of the same size in parallel.
+ * <p>
+ * The mazes are written into a reusable {@link MazeBatch} buffer, no grid objects are created. Each
+ * worker thread reuses its scratch memory for all mazes it generates. Maze {@code i} is created with
+ * its own random number generator seeded by a hash of {@code (seed, i)}, so the batch content depends
+ * only on the seed and not on the number of threads, and batches with different seeds do not share
+ * mazes.
+ *
+ * @author Armin Reichert
+ */
+public class BatchMazeGenerator {
+
+	private static final int CHUNK_SIZE = 64;
+
+	private final BatchAlgorithm algorithm;
+	private final ForkJoinPool pool;
+	private final ThreadLocal<BatchScratch> scratch = new ThreadLocal<>();
+	private TopologyCache topologyCache = TopologyCache.shared();
+
+	/**
+	 * Creates a batch generator running on the common fork/join pool.
+	 *
+	 * @param algorithm
+	 *                    maze generation algorithm
+	 */
+	public BatchMazeGenerator(BatchAlgorithm algorithm) {
+		this(algorithm, ForkJoinPool.commonPool());
+	}
+
+	/**
+	 * Creates a batch generator running on the given fork/join pool.
+	 *
+	 * @param algorithm
+	 *                    maze generation algorithm
+	 * @param pool
+	 *                    pool executing the generation
+	 */
+	public BatchMazeGenerator(BatchAlgorithm algorithm, ForkJoinPool pool) {
+		this.algorithm = algorithm;
+		this.pool = pool;
+	}
+
+	public BatchAlgorithm getAlgorithm() {
+		return algorithm;
+	}
+
+	/**
+	 * @return the cache for grid data depending only on grid size and topology
+	 */
+	public TopologyCache getTopologyCache() {
+		return topologyCache;
+	}
+
+	/**
+	 * Sets the cache for grid data depending only on grid size and topology, by default the
+	 * {@link TopologyCache#shared() shared} cache.
+	 * 
+	 * @param topologyCache
+	 *                        topology cache
+	 */
+	public void setTopologyCache(TopologyCache topologyCache) {
+		this.topologyCache = topologyCache;
+	}
+
+	/**
+	 * Generates all mazes of the batch, overwriting the previous content.
+	 *
+	 * @param batch
+	 *                maze buffer
+	 * @param seed
+	 *                seed of the random numbers
+	 */
+	public void generate(MazeBatch batch, long seed) {
+		generate(batch, seed, 0, batch.numMazes());
+	}
+
+	/**
+	 * Generates the mazes {@code from, ..., to - 1} of the batch, overwriting their previous content.
+	 *
+	 * @param batch
+	 *                maze buffer
+	 * @param seed
+	 *                seed of the random numbers
+	 * @param from
+	 *                first maze index (inclusive)
+	 * @param to
+	 *                last maze index (exclusive)
+	 */
+	public void generate(MazeBatch batch, long seed, int from, int to) {
+		if (from < 0 || to > batch.numMazes() || from > to) {
+			throw new IndexOutOfBoundsException(String.format("Illegal maze range [%d, %d)", from, to));
+		}
+		ParallelLoop.forRange(pool, from, to, CHUNK_SIZE, (first, last) -> generateRange(batch, seed, first, last));
+	}
+
+	private BatchScratch scratch(GridNeighborhood neighborhood) {
+		BatchScratch threadScratch = scratch.get();
+		if (threadScratch == null || !threadScratch.fits(neighborhood, topologyCache)) {
+			threadScratch = new BatchScratch(neighborhood, topologyCache);
+			scratch.set(threadScratch);
+		}
+		return threadScratch;
+	}
+
+	private void generateRange(MazeBatch batch, long seed, int from, int to) {
+		BatchScratch threadScratch = scratch(batch.getNeighborhood());
+		for (int maze = from; maze < to; ++maze) {
+			batch.clear(maze);
+			algorithm.generate(batch, maze, threadScratch, MazeRandom.xoshiro(MazeRandom.hash(seed, maze)));
+		}
+	}
+}
@@ -0,0 +1,69 @@
+package de.amr.maze.alg.batch;
+
+import java.util.Arrays;
+
+import de.amr.maze.alg.core.GridNeighborhood;
+import de.amr.maze.alg.core.TopologyCache;
+import de.amr.maze.alg.core.UnionFind;
+
+/**
+ * Scratch memory of a worker thread, reused for all mazes this thread generates.
+ *
+ * @author Armin Reichert
+ */
+class BatchScratch {
+
+	final GridNeighborhood neighborhood;
+	private final TopologyCache topologyCache;
+	final int[] stack;
+	final UnionFind forest;
+	final byte[] walkDir;
+	private final int[] mark;
+	private int epoch;
+	private int[] edges;
+	private int[] edgeOrder;
+
+	BatchScratch(GridNeighborhood neighborhood, TopologyCache topologyCache) {
+		this.neighborhood = neighborhood;
+		this.topologyCache = topologyCache;
+		int n = neighborhood.numCells();
+		stack = new int[n];
+		forest = new UnionFind(n);
+		walkDir = new byte[n];
+		mark = new int[n];
+	}
+
+	boolean fits(GridNeighborhood other, TopologyCache otherCache) {
+		return topologyCache == otherCache && neighborhood.numCols() == other.numCols() && neighborhood.numRows() == other.numRows()
+				&& neighborhood.dirCount() == other.dirCount();
+	}
+
+	/** Clears all marks in constant time. */
+	void clearMarks() {
+		if (++epoch == 0) {
+			Arrays.fill(mark, 0);
+			epoch = 1;
+		}
+	}
+
+	boolean isMarked(int cell) {
+		return mark[cell] == epoch;
+	}
+
+	void setMarked(int cell) {
+		mark[cell] = epoch;
+	}
+
+	/**
+	 * @return working copy of the codes of all grid edges in index order, see
+	 *         {@link GridNeighborhood#edges()}
+	 */
+	int[] edges() {
+		if (edges == null) {
+			edges = topologyCache.getEdges(neighborhood);
+			edgeOrder = new int[edges.length];
+		}
+		System.arraycopy(edges, 0, edgeOrder, 0, edges.length);
+		return edgeOrder;
+	}
+}
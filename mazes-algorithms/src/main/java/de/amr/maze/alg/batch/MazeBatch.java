@@ -0,0 +1,119 @@
+package de.amr.maze.alg.batch;
+
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.GridNeighborhood;
+
+/**
+ * Reusable buffer for a batch of mazes of the same size and topology.
+ * <p>
+ * The mazes are stored as a structure of arrays: the passages of all mazes are stored in one byte
+ * array with one byte per cell where bit {@code d} is set if the cell has a passage towards direction
+ * {@code d} of the {@link GridNeighborhood}. The passages of maze {@code i} start at offset
+ * {@code i * numCells}.
+ *
+ * @author Armin Reichert
+ */
+public class MazeBatch {
+
+	private final GridNeighborhood neighborhood;
+	private final int numMazes;
+	private final byte[] passages;
+
+	/**
+	 * Creates a buffer for the given number of mazes.
+	 *
+	 * @param neighborhood
+	 *                       grid size and topology of the mazes
+	 * @param numMazes
+	 *                       number of mazes
+	 */
+	public MazeBatch(GridNeighborhood neighborhood, int numMazes) {
+		if (neighborhood.dirCount() > 8) {
+			throw new IllegalArgumentException("At most 8 directions supported");
+		}
+		if (numMazes < 0 || (long) numMazes * neighborhood.numCells() > Integer.MAX_VALUE - 8) {
+			throw new IllegalArgumentException(String.format("Cannot store %d mazes of %d cells", numMazes,
+					neighborhood.numCells()));
+		}
+		this.neighborhood = neighborhood;
+		this.numMazes = numMazes;
+		this.passages = new byte[numMazes * neighborhood.numCells()];
+	}
+
+	public GridNeighborhood getNeighborhood() {
+		return neighborhood;
+	}
+
+	public int numMazes() {
+		return numMazes;
+	}
+
+	/**
+	 * @param maze
+	 *               maze index
+	 * @param cell
+	 *               cell of the maze
+	 * @return bit mask of the directions where the cell has a passage
+	 */
+	public int passages(int maze, int cell) {
+		return passages[maze * neighborhood.numCells() + cell] & 0xFF;
+	}
+
+	/**
+	 * @param maze
+	 *               maze index
+	 * @param cell
+	 *               cell of the maze
+	 * @param dir
+	 *               direction
+	 * @return {@code true} if the cell has a passage towards the given direction
+	 */
+	public boolean isPassage(int maze, int cell, int dir) {
+		return (passages(maze, cell) & (1 << dir)) != 0;
+	}
+
+	/**
+	 * @param maze
+	 *               maze index
+	 * @return number of passages (edges) of the maze
+	 */
+	public int numPassages(int maze) {
+		int count = 0;
+		for (int cell = 0, offset = maze * neighborhood.numCells(); cell < neighborhood.numCells(); ++cell) {
+			count += Integer.bitCount(passages[offset + cell] & 0xFF);
+		}
+		return count / 2;
+	}
+
+	/**
+	 * Adds the passages of the given maze as edges to the given grid, which must have the size and
+	 * topology of this batch.
+	 *
+	 * @param maze
+	 *               maze index
+	 * @param grid
+	 *               a grid
+	 */
+	public void copyTo(int maze, GridGraph2D<?, ?> grid) {
+		for (int cell = 0; cell < neighborhood.numCells(); ++cell) {
+			// add each edge only from the cell where it points to the first half of the directions
+			int firstHalf = (1 << neighborhood.dirCount() / 2) - 1;
+			for (int dirs = passages(maze, cell) & firstHalf; dirs != 0; dirs &= dirs - 1) {
+				grid.addEdge(cell, neighborhood.neighbor(cell, Integer.numberOfTrailingZeros(dirs)));
+			}
+		}
+	}
+
+	void clear(int maze) {
+		int offset = maze * neighborhood.numCells();
+		for (int cell = 0; cell < neighborhood.numCells(); ++cell) {
+			passages[offset + cell] = 0;
+		}
+	}
+
+	void connect(int maze, int cell, int dir, int neighbor) {
+		int offset = maze * neighborhood.numCells();
+		passages[offset + cell] |= 1 << dir;
+		passages[offset + neighbor] |= 1 << neighborhood.opposite(dir);
+	}
+}
@@ -0,0 +1,151 @@
+package de.amr.maze.alg.core;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Priority queue ("bucket queue") of the elements {@code 0, ..., n - 1} with small int keys
+ * {@code 0, ..., numKeys - 1}.
+ * <p>
+ * There is one bucket per key. Inserting, decreasing a key and extracting a minimum element take
+ * constant time for a fixed number of keys. Among the elements with minimum key, a random one is
+ * extracted.
+ *
+ * @author Armin Reichert
+ */
+public final class BucketQueue implements IndexedPriorityQueue {
+
+	private final int[][] buckets;
+	private final int[] bucketSize;
+	private final int[] key;
+	private final int[] index; // index + 1 inside bucket, 0 = not contained
+	private int size;
+	private int minKey;
+
+	/**
+	 * Creates an empty queue.
+	 *
+	 * @param n
+	 *                  number of elements
+	 * @param numKeys
+	 *                  number of keys
+	 */
+	public BucketQueue(int n, int numKeys) {
+		if (numKeys < 1) {
+			throw new IllegalArgumentException("Number of keys must be positive: " + numKeys);
+		}
+		buckets = new int[numKeys][];
+		Arrays.setAll(buckets, k -> new int[16]);
+		bucketSize = new int[numKeys];
+		key = new int[n];
+		index = new int[n];
+		minKey = numKeys;
+	}
+
+	public int numKeys() {
+		return buckets.length;
+	}
+
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param element
+	 *                  an element
+	 * @return {@code true} if the element is contained in the queue
+	 */
+	@Override
+	public boolean contains(int element) {
+		return index[element] != 0;
+	}
+
+	/**
+	 * @param element
+	 *                  a contained element
+	 * @return the key of the element
+	 */
+	@Override
+	public int key(int element) {
+		return key[element];
+	}
+
+	/**
+	 * Inserts an element which is not contained in the queue.
+	 *
+	 * @param element
+	 *                     an element
+	 * @param elementKey
+	 *                     its key from {@code 0, ..., numKeys - 1}
+	 */
+	@Override
+	public void insert(int element, int elementKey) {
+		if (contains(element)) {
+			throw new IllegalStateException("Element already contained: " + element);
+		}
+		add(element, elementKey);
+		++size;
+	}
+
+	/**
+	 * Decreases the key of a contained element. Does nothing if the new key is not smaller.
+	 *
+	 * @param element
+	 *                  a contained element
+	 * @param newKey
+	 *                  the new key
+	 */
+	@Override
+	public void decreaseKey(int element, int newKey) {
+		if (newKey < key[element]) {
+			remove(element);
+			add(element, newKey);
+		}
+	}
+
+	/**
+	 * Removes and returns a random element with the minimum key.
+	 *
+	 * @param rnd
+	 *              random number generator
+	 * @return element with minimum key
+	 */
+	@Override
+	public int extractMin(Random rnd) {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		while (bucketSize[minKey] == 0) {
+			++minKey;
+		}
+		int element = buckets[minKey][rnd.nextInt(bucketSize[minKey])];
+		remove(element);
+		--size;
+		return element;
+	}
+
+	private void add(int element, int elementKey) {
+		int[] bucket = buckets[elementKey];
+		if (bucketSize[elementKey] == bucket.length) {
+			bucket = buckets[elementKey] = Arrays.copyOf(bucket, 2 * bucket.length);
+		}
+		bucket[bucketSize[elementKey]++] = element;
+		index[element] = bucketSize[elementKey];
+		key[element] = elementKey;
+		minKey = Math.min(minKey, elementKey);
+	}
+
+	private void remove(int element) {
+		int[] bucket = buckets[key[element]];
+		int i = index[element] - 1, last = bucket[--bucketSize[key[element]]];
+		bucket[i] = last;
+		index[last] = i + 1;
+		index[element] = 0;
+	}
+}
@@ -0,0 +1,432 @@
+package de.amr.maze.alg.core;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Grid traversal orders (sweeps, circles, rectangles, spirals, crosses) as primitive int iterators.
+ * <p>
+ * The sequences are computed lazily from the grid geometry, without grid shapes or boxed cell
+ * indices. Shapes partially outside of the grid are cropped: positions outside of the grid are
+ * skipped. The combinators {@link #sequence(PrimitiveIterator.OfInt...)} and
+ * {@link #parallel(PrimitiveIterator.OfInt...)} compose sequences.
+ *
+ * @author Armin Reichert
+ */
+public final class CellSequences {
+
+	private static final int NONE = -1;
+
+	private CellSequences() {
+	}
+
+	/**
+	 * Iterator computing its next cell on demand.
+	 */
+	private abstract static class Cursor implements PrimitiveIterator.OfInt {
+
+		private int next = NONE;
+		private boolean ready;
+
+		/**
+		 * @return the next cell or {@code NONE} if the sequence is exhausted
+		 */
+		abstract int advance();
+
+		@Override
+		public boolean hasNext() {
+			if (!ready) {
+				next = advance();
+				ready = true;
+			}
+			return next != NONE;
+		}
+
+		@Override
+		public int nextInt() {
+			if (!hasNext()) {
+				throw new NoSuchElementException();
+			}
+			ready = false;
+			return next;
+		}
+	}
+
+	/**
+	 * Cells of a sequence of shapes given by position functions.
+	 */
+	@FunctionalInterface
+	private interface ShapeCells {
+
+		/**
+		 * @param shape
+		 *                shape number
+		 * @param i
+		 *                position index inside the shape
+		 * @return the grid cell at this position or {@code NONE} if it is outside of the grid
+		 */
+		int cell(int shape, int i);
+	}
+
+	private static final class ShapeCursor extends Cursor {
+
+		private final int lastShape;
+		private final IntUnaryOperator shapeSize;
+		private final ShapeCells cells;
+		private int shape;
+		private int i;
+
+		ShapeCursor(int firstShape, int lastShape, IntUnaryOperator shapeSize, ShapeCells cells) {
+			this.lastShape = lastShape;
+			this.shapeSize = shapeSize;
+			this.cells = cells;
+			this.shape = firstShape;
+		}
+
+		@Override
+		int advance() {
+			while (shape <= lastShape) {
+				if (i < shapeSize.applyAsInt(shape)) {
+					int cell = cells.cell(shape, i++);
+					if (cell != NONE) {
+						return cell;
+					}
+				}
+				else {
+					++shape;
+					i = 0;
+				}
+			}
+			return NONE;
+		}
+	}
+
+	private static int cellOrNone(GridNeighborhood grid, int col, int row) {
+		boolean inside = 0 <= col && col < grid.numCols() && 0 <= row && row < grid.numRows();
+		return inside ? grid.cell(col, row) : NONE;
+	}
+
+	/**
+	 * @param cells
+	 *                cell sequence
+	 * @return the remaining cells of the sequence as an array
+	 */
+	public static int[] toArray(PrimitiveIterator.OfInt cells) {
+		int[] result = new int[64];
+		int size = 0;
+		while (cells.hasNext()) {
+			if (size == result.length) {
+				result = Arrays.copyOf(result, 2 * size);
+			}
+			result[size++] = cells.nextInt();
+		}
+		return Arrays.copyOf(result, size);
+	}
+
+	/**
+	 * @param parts
+	 *                cell sequences
+	 * @return the cells of the first sequence, then the cells of the second sequence etc.
+	 */
+	public static PrimitiveIterator.OfInt sequence(PrimitiveIterator.OfInt... parts) {
+		return new Cursor() {
+
+			private int current;
+
+			@Override
+			int advance() {
+				for (; current < parts.length; ++current) {
+					if (parts[current].hasNext()) {
+						return parts[current].nextInt();
+					}
+				}
+				return NONE;
+			}
+		};
+	}
+
+	/**
+	 * @param parts
+	 *                cell sequences
+	 * @return the cells of all sequences taken in turns, one from each sequence that is not yet
+	 *         exhausted
+	 */
+	public static PrimitiveIterator.OfInt parallel(PrimitiveIterator.OfInt... parts) {
+		return new Cursor() {
+
+			private int current;
+
+			@Override
+			int advance() {
+				for (int tried = 0; tried < parts.length; ++tried) {
+					PrimitiveIterator.OfInt part = parts[current];
+					current = (current + 1) % parts.length;
+					if (part.hasNext()) {
+						return part.nextInt();
+					}
+				}
+				return NONE;
+			}
+		};
+	}
+
+	/**
+	 * @param grid
+	 *               grid
+	 * @return the cells column by column from left to right, each column from top to bottom
+	 */
+	public static PrimitiveIterator.OfInt leftToRightSweep(GridNeighborhood grid) {
+		int numCols = grid.numCols(), numRows = grid.numRows();
+		return new ShapeCursor(0, numCols - 1, col -> numRows, (col, row) -> grid.cell(col, row));
+	}
+
+	/**
+	 * @param grid
+	 *               grid
+	 * @return the cells column by column from right to left, each column from bottom to top
+	 */
+	public static PrimitiveIterator.OfInt rightToLeftSweep(GridNeighborhood grid) {
+		int numCols = grid.numCols(), numRows = grid.numRows();
+		return new ShapeCursor(0, numCols - 1, col -> numRows,
+				(col, row) -> grid.cell(numCols - 1 - col, numRows - 1 - row));
+	}
+
+	/**
+	 * @param grid
+	 *               grid
+	 * @return the cells column by column, alternating between the leftmost and rightmost column not yet
+	 *         visited, each column from top to bottom
+	 */
+	public static PrimitiveIterator.OfInt collapsingWalls(GridNeighborhood grid) {
+		int numCols = grid.numCols(), numRows = grid.numRows();
+		return new ShapeCursor(0, numCols - 1, k -> numRows,
+				(k, row) -> grid.cell(k % 2 == 0 ? k / 2 : numCols - 1 - k / 2, row));
+	}
+
+	/**
+	 * @param grid
+	 *                 grid
+	 * @param center
+	 *                 center cell
+	 * @param radius
+	 *                 radius
+	 * @return the cells with Manhattan distance {@code radius} from the center, clockwise starting
+	 *         north of the center
+	 */
+	public static PrimitiveIterator.OfInt circle(GridNeighborhood grid, int center, int radius) {
+		return expandingCircle(grid, center, radius, radius);
+	}
+
+	/**
+	 * @param grid
+	 *                 grid
+	 * @param center
+	 *                 center cell
+	 * @param rmin
+	 *                 radius of first circle
+	 * @param rmax
+	 *                 radius of last circle
+	 * @return the cells of the circles around the center with radius {@code rmin, rmin + 1, ..., rmax}
+	 * @see #circle(GridNeighborhood, int, int)
+	 */
+	public static PrimitiveIterator.OfInt expandingCircle(GridNeighborhood grid, int center, int rmin,
+			int rmax) {
+		int cx = grid.col(center), cy = grid.row(center);
+		return new ShapeCursor(rmin, rmax, r -> r == 0 ? 1 : 4 * r, (r, i) -> {
+			if (r == 0) {
+				return center;
+			}
+			int j = i % r;
+			switch (i / r) {
+			case 0:
+				return cellOrNone(grid, cx + j, cy - r + j);
+			case 1:
+				return cellOrNone(grid, cx + r - j, cy + j);
+			case 2:
+				return cellOrNone(grid, cx - j, cy + r - j);
+			default:
+				return cellOrNone(grid, cx - r + j, cy - j);
+			}
+		});
+	}
+
+	/**
+	 * @param grid
+	 *                 grid
+	 * @param col
+	 *                 column of top-left corner
+	 * @param row
+	 *                 row of top-left corner
+	 * @param width
+	 *                 rectangle width
+	 * @param height
+	 *                 rectangle height
+	 * @return the cells of the rectangle border, clockwise starting at the top-left corner
+	 */
+	public static PrimitiveIterator.OfInt rectangle(GridNeighborhood grid, int col, int row, int width,
+			int height) {
+		return new ShapeCursor(0, 0, shape -> borderSize(width, height),
+				(shape, i) -> borderCell(grid, col, row, width, height, i));
+	}
+
+	/**
+	 * Rectangles at the top-left grid corner that expand by a given rate until a maximum expansion is
+	 * reached.
+	 *
+	 * @param grid
+	 *                       grid
+	 * @param width
+	 *                       width of the first rectangle
+	 * @param height
+	 *                       height of the first rectangle
+	 * @param rate
+	 *                       expansion rate
+	 * @param maxExpansion
+	 *                       maximum expansion, reached by the last rectangle
+	 * @param horizontally
+	 *                       if the rectangles expand horizontally
+	 * @param vertically
+	 *                       if the rectangles expand vertically
+	 * @return the border cells of the rectangles
+	 * @see #rectangle(GridNeighborhood, int, int, int, int)
+	 */
+	public static PrimitiveIterator.OfInt expandingRectangle(GridNeighborhood grid, int width, int height,
+			int rate, int maxExpansion, boolean horizontally, boolean vertically) {
+		IntUnaryOperator expansion = k -> Math.min(k * rate, maxExpansion);
+		IntUnaryOperator w = k -> horizontally ? width + expansion.applyAsInt(k) : width;
+		IntUnaryOperator h = k -> vertically ? height + expansion.applyAsInt(k) : height;
+		int lastRectangle = (maxExpansion + rate - 1) / rate;
+		return new ShapeCursor(0, lastRectangle, k -> borderSize(w.applyAsInt(k), h.applyAsInt(k)),
+				(k, i) -> borderCell(grid, 0, 0, w.applyAsInt(k), h.applyAsInt(k), i));
+	}
+
+	private static int borderSize(int width, int height) {
+		return width == 1 || height == 1 ? width * height : 2 * (width + height) - 4;
+	}
+
+	private static int borderCell(GridNeighborhood grid, int col, int row, int width, int height, int i) {
+		if (i < width) {
+			return cellOrNone(grid, col + i, row);
+		}
+		i -= width;
+		if (i < height - 1) {
+			return cellOrNone(grid, col + width - 1, row + 1 + i);
+		}
+		i -= height - 1;
+		if (i < width - 1) {
+			return cellOrNone(grid, col + width - 2 - i, row + height - 1);
+		}
+		i -= width - 1;
+		return cellOrNone(grid, col, row + height - 2 - i);
+	}
+
+	/**
+	 * @param grid
+	 *                 grid
+	 * @param center
+	 *                 center cell
+	 * @return all grid cells in the order of a clockwise square spiral starting at the center
+	 */
+	public static PrimitiveIterator.OfInt spiral(GridNeighborhood grid, int center) {
+		return new Cursor() {
+
+			private final int[] dx = { 1, 0, -1, 0 }, dy = { 0, 1, 0, -1 };
+			private int col = grid.col(center), row = grid.row(center);
+			private int dir, legLength = 1, legPos = -1, numLegs, remaining = grid.numCells();
+
+			@Override
+			int advance() {
+				while (remaining > 0) {
+					if (legPos == -1) {
+						legPos = 0; // center
+					}
+					else {
+						col += dx[dir];
+						row += dy[dir];
+						if (++legPos == legLength) {
+							legPos = 0;
+							dir = (dir + 1) % 4;
+							if (++numLegs % 2 == 0) {
+								++legLength;
+							}
+						}
+					}
+					int cell = cellOrNone(grid, col, row);
+					if (cell != NONE) {
+						--remaining;
+						return cell;
+					}
+				}
+				return NONE;
+			}
+		};
+	}
+
+	/**
+	 * Recursive crosses: the cells of the middle row and middle column of the grid, then the crosses of
+	 * the four remaining rectangles, then the crosses of their remaining rectangles etc., level by
+	 * level.
+	 *
+	 * @param grid
+	 *               grid
+	 * @return all grid cells in recursive crosses order
+	 */
+	public static PrimitiveIterator.OfInt recursiveCrosses(GridNeighborhood grid) {
+		return new Cursor() {
+
+			// queue of rectangles, 4 ints (col, row, width, height) each
+			private int[] queue = { 0, 0, grid.numCols(), grid.numRows() };
+			private int head, tail = 4;
+			private int col, row, width, height, i = Integer.MAX_VALUE;
+
+			@Override
+			int advance() {
+				while (i >= width + height - 1) {
+					if (head == tail) {
+						return NONE;
+					}
+					col = queue[head];
+					row = queue[head + 1];
+					width = queue[head + 2];
+					height = queue[head + 3];
+					head += 4;
+					i = 0;
+					int cx = col + width / 2, cy = row + height / 2;
+					enqueue(col, row, cx - col, cy - row);
+					enqueue(cx + 1, row, col + width - cx - 1, cy - row);
+					enqueue(col, cy + 1, cx - col, row + height - cy - 1);
+					enqueue(cx + 1, cy + 1, col + width - cx - 1, row + height - cy - 1);
+				}
+				int cx = col + width / 2, cy = row + height / 2;
+				int k = i++;
+				if (k < width) {
+					return grid.cell(col + k, cy);
+				}
+				// middle column without the center
+				k -= width;
+				return grid.cell(cx, k < cy - row ? row + k : row + k + 1);
+			}
+
+			private void enqueue(int col, int row, int width, int height) {
+				if (width <= 0 || height <= 0) {
+					return;
+				}
+				if (tail + 4 > queue.length) {
+					// compact and grow
+					int size = tail - head;
+					int[] bigger = new int[Math.max(2 * size, size + 4)];
+					System.arraycopy(queue, head, bigger, 0, size);
+					queue = bigger;
+					head = 0;
+					tail = size;
+				}
+				queue[tail++] = col;
+				queue[tail++] = row;
+				queue[tail++] = width;
+				queue[tail++] = height;
+			}
+		};
+	}
+}
@@ -0,0 +1,109 @@
+package de.amr.maze.alg.core;
+
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Lock-free disjoint-set forest over the elements {@code 0, ..., n - 1} that can be used by several
+ * threads concurrently.
+ * <p>
+ * Roots are linked by compare-and-set, the root with the larger index is linked below the other
+ * one. Finds use path halving, the halving steps are also done by compare-and-set so concurrent
+ * finds and unions never corrupt the forest. Creation takes constant time: a stored value of
+ * {@code 0} marks a root, otherwise the value is {@code parent + 1}.
+ *
+ * @author Armin Reichert
+ */
+public final class ConcurrentUnionFind {
+
+	private final AtomicIntegerArray parent;
+
+	/**
+	 * Creates a partition of the elements {@code 0, ..., n - 1} into singleton sets.
+	 *
+	 * @param n
+	 *            number of elements
+	 */
+	public ConcurrentUnionFind(int n) {
+		parent = new AtomicIntegerArray(n);
+	}
+
+	/**
+	 * @return number of elements
+	 */
+	public int numElements() {
+		return parent.length();
+	}
+
+	private int parentOf(int x) {
+		int value = parent.get(x);
+		return value == 0 ? x : value - 1;
+	}
+
+	/**
+	 * @param x
+	 *            an element
+	 * @return the current representative element of the set containing {@code x}
+	 */
+	public int find(int x) {
+		while (true) {
+			int p = parentOf(x);
+			if (p == x) {
+				return x;
+			}
+			int grandParent = parentOf(p);
+			if (grandParent != p) {
+				parent.compareAndSet(x, p + 1, grandParent + 1);
+			}
+			x = grandParent;
+		}
+	}
+
+	/**
+	 * @param x
+	 *            an element
+	 * @param y
+	 *            an element
+	 * @return {@code true} if both elements are in the same set. The result is exact if no union runs
+	 *         concurrently.
+	 */
+	public boolean sameSet(int x, int y) {
+		while (true) {
+			x = find(x);
+			y = find(y);
+			if (x == y) {
+				return true;
+			}
+			if (parentOf(x) == x) {
+				return false;
+			}
+		}
+	}
+
+	/**
+	 * Merges the sets containing the given elements.
+	 *
+	 * @param x
+	 *            an element
+	 * @param y
+	 *            an element
+	 * @return {@code true} if the elements were in different sets before, i.e. if this call merged
+	 *         two sets
+	 */
+	public boolean union(int x, int y) {
+		while (true) {
+			x = find(x);
+			y = find(y);
+			if (x == y) {
+				return false;
+			}
+			if (x < y) {
+				int tmp = x;
+				x = y;
+				y = tmp;
+			}
+			if (parent.compareAndSet(x, 0, y + 1)) {
+				return true;
+			}
+		}
+	}
+}
@@ -0,0 +1,651 @@
+package de.amr.maze.alg.core;
+
+import java.util.Arrays;
+
+/**
+ * Fully dynamic connectivity of an undirected graph (Holm, de Lichtenberg and Thorup).
+ * <p>
+ * Edges can be inserted and deleted, and connectivity queries take {@code O(log n)} amortized time,
+ * updates {@code O(log^2 n)} amortized time. Each edge has a level between 0 and
+ * {@code floor(log2 n)}. The forest {@code F_i} consists of the spanning tree edges of level
+ * {@code i} or more, {@code F_0} is a spanning forest of the graph. When a tree edge is deleted, a
+ * replacement edge is searched from its level downwards, always in the smaller of the two trees, and
+ * the edges inspected without success are raised to the next level. This bounds the total work per
+ * edge.
+ * <p>
+ * The forests are represented by Euler tours stored in splay trees. All data is kept in flat int
+ * arrays: the nodes of the splay trees (one node per vertex and level, two nodes per tree edge and
+ * level), and the incidence lists of the tree and non-tree edges per level, which are linked through
+ * the edge ids. The fields of a node are stored side by side such that a rotation touches few cache
+ * lines. Levels are allocated on first use, and each level has its own node arrays, so growing the
+ * nodes of a level copies only these.
+ * <p>
+ * For a grid maze, the structure needs about 20 to 25 nodes of 20 bytes and three ints per level for
+ * each vertex, so creating a 1000x1000 maze by
+ * {@link de.amr.maze.alg.mst.ReverseDeleteMST_DynamicConnectivity} needs about 1 GB of heap.
+ *
+ * @author Armin Reichert
+ *
+ * @see <a href="https://dl.acm.org/doi/10.1145/502090.502095">Poly-logarithmic deterministic
+ *      fully-dynamic algorithms for connectivity, minimum spanning tree, 2-edge, and biconnectivity</a>
+ */
+public final class DynamicConnectivity {
+
+	private static final int NIL = -1;
+
+	// node layout: node n occupies nodes[n], ..., nodes[n + NODE_SIZE - 1]
+	private static final int LEFT = 0, RIGHT = 1, PARENT = 2, DATA = 3, NODE_SIZE = 4;
+
+	// node data: number of vertex nodes in the subtree, own flags and aggregated flags of the subtree
+	private static final int TREE = 1; // vertex has incident tree edges of the forest's level
+	private static final int NONTREE = 2; // vertex has incident non-tree edges of the forest's level
+	private static final int SUBTREE_SHIFT = 2;
+	private static final int VERTEX = 16;
+	private static final int OWN_FLAGS = VERTEX | TREE | NONTREE;
+	private static final int SUBTREE_FLAGS = (TREE | NONTREE) << SUBTREE_SHIFT;
+	private static final int COUNT_SHIFT = 5;
+	private static final int COUNT_ONE = 1 << COUNT_SHIFT;
+	private static final int COUNT_MASK = -COUNT_ONE;
+
+	// a deleted tree edge whose smaller side has at most this many vertices is replaced by a local search
+	private static final int LOCAL_SEARCH_LIMIT = 64;
+
+	private final int numVertices;
+	private final int numLevels;
+	private final int level0Capacity;
+
+	// edges, half-edge 2 * edge + side is the edge seen from its endpoint edgeEnd[side]
+	private final int[] edgeEnd;
+	private final byte[] edgeLevel;
+	private final int[] edgeArcs; // first arc pair (level 0) of a tree edge, NIL for non-tree edges
+	private final int[] nextHalfEdge;
+	private final int[] prevHalfEdge;
+	private final int[] nontreeDegree; // number of incident non-tree edges of any level
+
+	// levels: node of each vertex and heads of the incidence lists
+	private final int[][] vertexNode;
+	private final int[][] treeEdges;
+	private final int[][] nontreeEdges;
+
+	// splay tree nodes per level, items are indexed by node / NODE_SIZE: vertex of a vertex node, arc
+	// pair of next level
+	private final int[][] levelNodes;
+	private final int[][] levelItems;
+	private final int[] levelNodesEnd;
+	private final int[] levelFreeArcPairs; // linked via item
+
+	// nodes of the level of the current operation
+	private int currentLevel;
+	private int[] nodes;
+	private int[] item;
+
+	// local search: vertices of the smaller side, marked with the current stamp
+	private final int[] localVertices = new int[LOCAL_SEARCH_LIMIT];
+	private final int[] localStack = new int[3 * LOCAL_SEARCH_LIMIT];
+	private final int[] stamp;
+	private int currentStamp;
+
+	/**
+	 * Creates a graph without edges.
+	 *
+	 * @param numVertices
+	 *                      number of vertices
+	 * @param maxEdges
+	 *                      maximum number of edges, edge ids are {@code 0, ..., maxEdges - 1}
+	 */
+	public DynamicConnectivity(int numVertices, int maxEdges) {
+		if (numVertices < 0 || numVertices > Integer.MAX_VALUE >> COUNT_SHIFT) {
+			throw new IllegalArgumentException("Illegal number of vertices: " + numVertices);
+		}
+		this.numVertices = numVertices;
+		numLevels = 32 - Integer.numberOfLeadingZeros(Math.max(1, numVertices));
+		edgeEnd = new int[2 * maxEdges];
+		edgeLevel = new byte[maxEdges];
+		edgeArcs = new int[maxEdges];
+		Arrays.fill(edgeArcs, NIL);
+		nextHalfEdge = new int[2 * maxEdges];
+		prevHalfEdge = new int[2 * maxEdges];
+		nontreeDegree = new int[numVertices];
+		stamp = new int[numVertices];
+		vertexNode = new int[numLevels][];
+		treeEdges = new int[numLevels][];
+		nontreeEdges = new int[numLevels][];
+		levelNodes = new int[numLevels][];
+		levelItems = new int[numLevels][];
+		levelNodesEnd = new int[numLevels];
+		levelFreeArcPairs = new int[numLevels];
+		// level 0 is a spanning forest, the higher levels contain fewer vertices and edges
+		level0Capacity = numVertices + 2 * Math.min(maxEdges, numVertices) + 64;
+		allocateLevel(0);
+		useLevel(0);
+	}
+
+	public int numVertices() {
+		return numVertices;
+	}
+
+	/**
+	 * @return number of levels allocated so far
+	 */
+	public int numLevelsUsed() {
+		int levels = 0;
+		while (levels < numLevels && vertexNode[levels] != null) {
+			++levels;
+		}
+		return levels;
+	}
+
+	/**
+	 * @param u
+	 *            a vertex
+	 * @param v
+	 *            a vertex
+	 * @return {@code true} if the vertices are connected by a path
+	 */
+	public boolean connected(int u, int v) {
+		return connected(0, u, v);
+	}
+
+	/**
+	 * @param edge
+	 *               id of an inserted edge
+	 * @return {@code true} if the edge belongs to the spanning forest
+	 */
+	public boolean isTreeEdge(int edge) {
+		return edgeArcs[edge] != NIL;
+	}
+
+	/**
+	 * Inserts an edge.
+	 *
+	 * @param edge
+	 *               edge id, not in use
+	 * @param u
+	 *               an endpoint
+	 * @param v
+	 *               the other endpoint
+	 */
+	public void insert(int edge, int u, int v) {
+		edgeEnd[2 * edge] = u;
+		edgeEnd[2 * edge + 1] = v;
+		edgeLevel[edge] = 0;
+		if (u != v && !connected(0, u, v)) {
+			addTreeEdge(edge, 0);
+		}
+		else {
+			addToList(nontreeEdges, NONTREE, 0, edge);
+		}
+	}
+
+	/**
+	 * Deletes an edge. If it was a tree edge, a replacement edge is searched.
+	 *
+	 * @param edge
+	 *               id of an inserted edge
+	 */
+	public void delete(int edge) {
+		int level = edgeLevel[edge];
+		if (edgeArcs[edge] == NIL) {
+			removeFromList(nontreeEdges, NONTREE, level, edge);
+			return;
+		}
+		removeFromList(treeEdges, TREE, level, edge);
+		for (int i = 0, arc = edgeArcs[edge]; arc != NIL; ++i) {
+			useLevel(i);
+			int nextLevelArc = item[arc / NODE_SIZE];
+			cut(arc, arc + NODE_SIZE);
+			freeArcPair(arc);
+			arc = nextLevelArc;
+		}
+		edgeArcs[edge] = NIL;
+		int u = edgeEnd[2 * edge], v = edgeEnd[2 * edge + 1];
+		int sizeU = treeSize(0, u), sizeV = treeSize(0, v);
+		if (Math.min(sizeU, sizeV) <= LOCAL_SEARCH_LIMIT) {
+			replaceLocally(sizeU <= sizeV ? u : v, level);
+			return;
+		}
+		for (int i = level; i >= 0; --i) {
+			if (replace(u, v, i)) {
+				return;
+			}
+		}
+	}
+
+	/**
+	 * Searches a replacement edge of level {@code i} for the deleted tree edge {@code (u, v)}.
+	 * <p>
+	 * The non-tree edges of level {@code i} of the smaller tree are inspected, those not leaving the
+	 * tree are raised to level {@code i + 1}. This requires that the tree itself has been raised before,
+	 * which is done on the first such edge. If the first edge is a replacement or there are no non-tree
+	 * edges, the tree stays where it is.
+	 */
+	private boolean replace(int u, int v, int i) {
+		int smaller = treeSize(i, u) <= treeSize(i, v) ? u : v;
+		boolean treeRaised = false;
+		for (int node; (node = findFlagged(i, smaller, NONTREE)) != NIL;) {
+			int vertex = item[node / NODE_SIZE];
+			for (int halfEdge; (halfEdge = nontreeEdges[i][vertex]) != NIL;) {
+				int edge = halfEdge >> 1;
+				int other = edgeEnd[halfEdge ^ 1];
+				removeFromList(nontreeEdges, NONTREE, i, edge);
+				if (!connected(i, smaller, other)) {
+					addTreeEdge(edge, i);
+					return true;
+				}
+				if (!treeRaised) {
+					raiseTreeEdges(i, smaller);
+					treeRaised = true;
+				}
+				edgeLevel[edge] = (byte) (i + 1);
+				addToList(nontreeEdges, NONTREE, i + 1, edge);
+			}
+		}
+		return false;
+	}
+
+	/** Raises the tree edges of level i in the tree of the vertex, it becomes a tree of F_(i+1). */
+	private void raiseTreeEdges(int i, int vertex) {
+		for (int node; (node = findFlagged(i, vertex, TREE)) != NIL;) {
+			int w = item[node / NODE_SIZE];
+			for (int halfEdge; (halfEdge = treeEdges[i][w]) != NIL;) {
+				int edge = halfEdge >> 1;
+				removeFromList(treeEdges, TREE, i, edge);
+				edgeLevel[edge] = (byte) (i + 1);
+				int arc = edgeArcs[edge];
+				for (int j = 0; j < i; ++j) {
+					arc = levelItems[j][arc / NODE_SIZE];
+				}
+				int raised = linkArcs(i + 1, edge); // may reallocate the node arrays of level i + 1
+				levelItems[i][arc / NODE_SIZE] = raised;
+				addToList(treeEdges, TREE, i + 1, edge);
+			}
+		}
+	}
+
+	/**
+	 * Searches a replacement edge for a deleted tree edge of the given level by inspecting all non-tree
+	 * edges of the small tree of {@code F_0} containing the given vertex. The edge of highest level that
+	 * leaves the tree becomes the replacement, as the level search would have found it, and nothing is
+	 * raised.
+	 */
+	private void replaceLocally(int vertex, int level) {
+		if (++currentStamp == 0) {
+			Arrays.fill(stamp, 0);
+			currentStamp = 1;
+		}
+		useLevel(0);
+		int[] nodes = this.nodes;
+		int size = 0, top = 0;
+		splay(vertexNode[0][vertex]);
+		localStack[top++] = vertexNode[0][vertex];
+		while (top > 0) {
+			int node = localStack[--top];
+			if ((nodes[node + DATA] & VERTEX) != 0) {
+				int w = item[node / NODE_SIZE];
+				stamp[w] = currentStamp;
+				if (nontreeDegree[w] > 0) {
+					localVertices[size++] = w;
+				}
+			}
+			if (nodes[node + LEFT] != NIL) {
+				localStack[top++] = nodes[node + LEFT];
+			}
+			if (nodes[node + RIGHT] != NIL) {
+				localStack[top++] = nodes[node + RIGHT];
+			}
+		}
+		// non-tree edges leaving the tree were on a cycle with the deleted edge, so their level is not higher
+		int best = NIL, bestLevel = NIL;
+		for (int k = 0; k < size; ++k) {
+			int w = localVertices[k];
+			for (int i = level; i > bestLevel; --i) {
+				if (nontreeEdges[i] == null) {
+					continue;
+				}
+				for (int halfEdge = nontreeEdges[i][w]; halfEdge != NIL; halfEdge = nextHalfEdge[halfEdge]) {
+					if (stamp[edgeEnd[halfEdge ^ 1]] != currentStamp) {
+						best = halfEdge >> 1;
+						bestLevel = i;
+						break;
+					}
+				}
+			}
+		}
+		if (best != NIL) {
+			removeFromList(nontreeEdges, NONTREE, bestLevel, best);
+			addTreeEdge(best, bestLevel);
+		}
+	}
+
+	private void addTreeEdge(int edge, int level) {
+		edgeLevel[edge] = (byte) level;
+		int first = linkArcs(0, edge), arc = first;
+		for (int i = 1; i <= level; ++i) {
+			int next = linkArcs(i, edge);
+			levelItems[i - 1][arc / NODE_SIZE] = next;
+			arc = next;
+		}
+		edgeArcs[edge] = first;
+		addToList(treeEdges, TREE, level, edge);
+	}
+
+	/** Links the endpoints of the edge in the forest of the given level by a new arc pair. */
+	private int linkArcs(int level, int edge) {
+		allocateLevel(level);
+		useLevel(level);
+		int arc = newArcPair();
+		int ru = reroot(vertexNode(level, edgeEnd[2 * edge]));
+		int rv = reroot(vertexNode(level, edgeEnd[2 * edge + 1]));
+		// the first arc is the right child of the left root, so the outer join is cheap
+		join(join(ru, arc), join(rv, arc + NODE_SIZE));
+		return arc;
+	}
+
+	// incidence lists
+
+	private void addToList(int[][] heads, int flag, int level, int edge) {
+		allocateLevel(level);
+		int[] head = heads[level];
+		for (int halfEdge = 2 * edge; halfEdge <= 2 * edge + 1; ++halfEdge) {
+			int vertex = edgeEnd[halfEdge];
+			int first = head[vertex];
+			nextHalfEdge[halfEdge] = first;
+			prevHalfEdge[halfEdge] = NIL;
+			if (first != NIL) {
+				prevHalfEdge[first] = halfEdge;
+			}
+			head[vertex] = halfEdge;
+			if (flag == NONTREE) {
+				++nontreeDegree[vertex];
+			}
+			if (first == NIL) {
+				setFlag(level, vertex, flag, true);
+			}
+		}
+	}
+
+	private void removeFromList(int[][] heads, int flag, int level, int edge) {
+		int[] head = heads[level];
+		for (int halfEdge = 2 * edge; halfEdge <= 2 * edge + 1; ++halfEdge) {
+			int vertex = edgeEnd[halfEdge];
+			int prev = prevHalfEdge[halfEdge], next = nextHalfEdge[halfEdge];
+			if (prev != NIL) {
+				nextHalfEdge[prev] = next;
+			}
+			else {
+				head[vertex] = next;
+			}
+			if (next != NIL) {
+				prevHalfEdge[next] = prev;
+			}
+			if (flag == NONTREE) {
+				--nontreeDegree[vertex];
+			}
+			if (head[vertex] == NIL) {
+				setFlag(level, vertex, flag, false);
+			}
+		}
+	}
+
+	// Euler tour forests
+
+	private void allocateLevel(int level) {
+		if (vertexNode[level] == null) {
+			vertexNode[level] = new int[numVertices];
+			treeEdges[level] = new int[numVertices];
+			nontreeEdges[level] = new int[numVertices];
+			Arrays.fill(vertexNode[level], NIL);
+			Arrays.fill(treeEdges[level], NIL);
+			Arrays.fill(nontreeEdges[level], NIL);
+			int capacity = level == 0 ? level0Capacity : 64 + numVertices / 4;
+			levelNodes[level] = new int[NODE_SIZE * capacity];
+			levelItems[level] = new int[capacity];
+			levelFreeArcPairs[level] = NIL;
+		}
+	}
+
+	/** Lets the splay tree operations work on the nodes of the given (allocated) level. */
+	private void useLevel(int level) {
+		currentLevel = level;
+		nodes = levelNodes[level];
+		item = levelItems[level];
+	}
+
+	private int vertexNode(int level, int vertex) {
+		allocateLevel(level);
+		useLevel(level);
+		int node = vertexNode[level][vertex];
+		if (node == NIL) {
+			node = newNode();
+			nodes[node + DATA] = COUNT_ONE | VERTEX;
+			item[node / NODE_SIZE] = vertex;
+			vertexNode[level][vertex] = node;
+		}
+		return node;
+	}
+
+	private boolean connected(int level, int u, int v) {
+		if (u == v) {
+			return true;
+		}
+		if (vertexNode[level] == null) {
+			return false;
+		}
+		int x = vertexNode[level][u], y = vertexNode[level][v];
+		if (x == NIL || y == NIL) {
+			return false;
+		}
+		useLevel(level);
+		splay(x);
+		splay(y);
+		// x stays the root of its splay tree if and only if it is not in the tree of y
+		return nodes[x + PARENT] != NIL;
+	}
+
+	private int treeSize(int level, int vertex) {
+		int node = vertexNode(level, vertex);
+		splay(node);
+		return nodes[node + DATA] >>> COUNT_SHIFT;
+	}
+
+	private void setFlag(int level, int vertex, int flag, boolean value) {
+		int node = vertexNode(level, vertex);
+		splay(node);
+		int data = nodes[node + DATA];
+		nodes[node + DATA] = value ? data | flag : data & ~flag;
+		update(node);
+	}
+
+	/** @return a vertex node with the given own flag in the tree of the vertex or NIL */
+	private int findFlagged(int level, int vertex, int flag) {
+		useLevel(level);
+		int[] nodes = this.nodes;
+		int node = vertexNode[level][vertex];
+		splay(node);
+		int subtreeFlag = flag << SUBTREE_SHIFT;
+		if ((nodes[node + DATA] & subtreeFlag) == 0) {
+			return NIL;
+		}
+		while ((nodes[node + DATA] & flag) == 0) {
+			int l = nodes[node + LEFT];
+			node = l != NIL && (nodes[l + DATA] & subtreeFlag) != 0 ? l : nodes[node + RIGHT];
+		}
+		splay(node);
+		return node;
+	}
+
+	/** Rotates the tour such that it starts with the given node and returns the new root. */
+	private int reroot(int node) {
+		splay(node);
+		int l = nodes[node + LEFT];
+		if (l == NIL) {
+			return node;
+		}
+		nodes[node + LEFT] = NIL;
+		nodes[l + PARENT] = NIL;
+		update(node);
+		return join(node, l);
+	}
+
+	/**
+	 * Removes the arc pair from its tour: {@code A a B b C} becomes {@code A C} and {@code B} (or the
+	 * same with {@code a} and {@code b} swapped). The arc nodes are left detached.
+	 */
+	private void cut(int a, int b) {
+		int[] nodes = this.nodes;
+		splay(b);
+		splay(a);
+		// b is a descendant of the root a, close to it
+		int x = b;
+		while (nodes[x + PARENT] != a) {
+			x = nodes[x + PARENT];
+		}
+		boolean aFirst = nodes[a + RIGHT] == x;
+		int l = nodes[a + LEFT], r = nodes[a + RIGHT];
+		nodes[a + LEFT] = nodes[a + RIGHT] = NIL;
+		if (l != NIL) {
+			nodes[l + PARENT] = NIL;
+		}
+		if (r != NIL) {
+			nodes[r + PARENT] = NIL;
+		}
+		// splay b to the root of its side, its children are the middle part and an outer part
+		splay(b);
+		int bl = nodes[b + LEFT], br = nodes[b + RIGHT];
+		nodes[b + LEFT] = nodes[b + RIGHT] = NIL;
+		if (bl != NIL) {
+			nodes[bl + PARENT] = NIL;
+		}
+		if (br != NIL) {
+			nodes[br + PARENT] = NIL;
+		}
+		if (aFirst) {
+			join(l, br);
+		}
+		else {
+			join(bl, r);
+		}
+	}
+
+	private int join(int a, int b) {
+		if (a == NIL) {
+			return b;
+		}
+		if (b == NIL) {
+			return a;
+		}
+		int[] nodes = this.nodes;
+		int last = a;
+		while (nodes[last + RIGHT] != NIL) {
+			last = nodes[last + RIGHT];
+		}
+		splay(last);
+		nodes[last + RIGHT] = b;
+		nodes[b + PARENT] = last;
+		update(last);
+		return last;
+	}
+
+	// splay trees
+
+	private void update(int node) {
+		int[] nodes = this.nodes;
+		int own = nodes[node + DATA] & OWN_FLAGS;
+		int data = own | (own & (TREE | NONTREE)) << SUBTREE_SHIFT;
+		if ((own & VERTEX) != 0) {
+			data += COUNT_ONE;
+		}
+		int l = nodes[node + LEFT], r = nodes[node + RIGHT];
+		if (l != NIL) {
+			int d = nodes[l + DATA];
+			data = (data + (d & COUNT_MASK)) | (d & SUBTREE_FLAGS);
+		}
+		if (r != NIL) {
+			int d = nodes[r + DATA];
+			data = (data + (d & COUNT_MASK)) | (d & SUBTREE_FLAGS);
+		}
+		nodes[node + DATA] = data;
+	}
+
+	private void rotate(int x) {
+		int[] nodes = this.nodes;
+		int p = nodes[x + PARENT], g = nodes[p + PARENT];
+		if (nodes[p + LEFT] == x) {
+			int b = nodes[x + RIGHT];
+			nodes[p + LEFT] = b;
+			if (b != NIL) {
+				nodes[b + PARENT] = p;
+			}
+			nodes[x + RIGHT] = p;
+		}
+		else {
+			int b = nodes[x + LEFT];
+			nodes[p + RIGHT] = b;
+			if (b != NIL) {
+				nodes[b + PARENT] = p;
+			}
+			nodes[x + LEFT] = p;
+		}
+		nodes[p + PARENT] = x;
+		nodes[x + PARENT] = g;
+		if (g != NIL) {
+			if (nodes[g + LEFT] == p) {
+				nodes[g + LEFT] = x;
+			}
+			else {
+				nodes[g + RIGHT] = x;
+			}
+		}
+		update(p);
+		update(x);
+	}
+
+	private void splay(int x) {
+		int[] nodes = this.nodes;
+		while (nodes[x + PARENT] != NIL) {
+			int p = nodes[x + PARENT], g = nodes[p + PARENT];
+			if (g != NIL) {
+				rotate((nodes[g + LEFT] == p) == (nodes[p + LEFT] == x) ? p : x);
+			}
+			rotate(x);
+		}
+	}
+
+	// node allocation
+
+	private int newNode() {
+		int node = levelNodesEnd[currentLevel];
+		if (node == nodes.length) {
+			int capacity = item.length + (item.length >> 1);
+			levelNodes[currentLevel] = nodes = Arrays.copyOf(nodes, NODE_SIZE * capacity);
+			levelItems[currentLevel] = item = Arrays.copyOf(item, capacity);
+		}
+		levelNodesEnd[currentLevel] += NODE_SIZE;
+		nodes[node + LEFT] = nodes[node + RIGHT] = nodes[node + PARENT] = NIL;
+		return node;
+	}
+
+	/** @return the first node of a new pair of arc nodes, the second node follows it */
+	private int newArcPair() {
+		int arc;
+		if (levelFreeArcPairs[currentLevel] != NIL) {
+			arc = levelFreeArcPairs[currentLevel];
+			levelFreeArcPairs[currentLevel] = item[arc / NODE_SIZE];
+		}
+		else {
+			arc = newNode();
+			newNode();
+		}
+		for (int node = arc; node <= arc + NODE_SIZE; node += NODE_SIZE) {
+			nodes[node + LEFT] = nodes[node + RIGHT] = nodes[node + PARENT] = NIL;
+			nodes[node + DATA] = 0;
+			item[node / NODE_SIZE] = NIL;
+		}
+		return arc;
+	}
+
+	private void freeArcPair(int arc) {
+		item[arc / NODE_SIZE] = levelFreeArcPairs[currentLevel];
+		levelFreeArcPairs[currentLevel] = arc;
+	}
+}
@@ -0,0 +1,120 @@
+package de.amr.maze.alg.core;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Frontier of cells used by traversal-based maze generators, stored in a circular int array.
+ * <p>
+ * The cells are indexed from {@code 0} (front) to {@code size() - 1} (newest). Removing the front
+ * or newest cell keeps the order of the other cells. Removing a cell at any other index takes
+ * constant time too: the hole is filled with the front cell. So the front is not a FIFO queue, its
+ * cell is the oldest one only as long as no cell has been removed from the middle.
+ *
+ * @author Armin Reichert
+ */
+public final class Frontier {
+
+	private int[] buffer;
+	private int head;
+	private int size;
+
+	/**
+	 * Creates an empty frontier.
+	 */
+	public Frontier() {
+		buffer = new int[16];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * @param i
+	 *            index, {@code 0} is the front cell
+	 * @return the cell at the given index
+	 */
+	public int get(int i) {
+		checkIndex(i);
+		return buffer[(head + i) & (buffer.length - 1)];
+	}
+
+	/**
+	 * Adds the given cell as newest cell.
+	 *
+	 * @param cell
+	 *               a cell
+	 */
+	public void add(int cell) {
+		if (size == buffer.length) {
+			grow();
+		}
+		buffer[(head + size++) & (buffer.length - 1)] = cell;
+	}
+
+	/**
+	 * @return removes and returns the front cell
+	 */
+	public int removeFirst() {
+		checkIndex(0);
+		int cell = buffer[head];
+		head = (head + 1) & (buffer.length - 1);
+		--size;
+		return cell;
+	}
+
+	/**
+	 * @return removes and returns the newest cell
+	 */
+	public int removeLast() {
+		checkIndex(0);
+		return buffer[(head + --size) & (buffer.length - 1)];
+	}
+
+	/**
+	 * Removes and returns the cell at the given index. If it is neither the front nor the newest cell,
+	 * the front cell takes its place.
+	 *
+	 * @param i
+	 *            index, {@code 0} is the front cell
+	 * @return the removed cell
+	 */
+	public int removeAt(int i) {
+		checkIndex(i);
+		if (i == size - 1) {
+			return removeLast();
+		}
+		int slot = (head + i) & (buffer.length - 1);
+		int cell = buffer[slot];
+		buffer[slot] = removeFirst();
+		return cell;
+	}
+
+	/**
+	 * @param rnd
+	 *              random number generator
+	 * @return removes and returns a random cell
+	 */
+	public int removeRandom(Random rnd) {
+		return removeAt(rnd.nextInt(size));
+	}
+
+	private void checkIndex(int i) {
+		if (i < 0 || i >= size) {
+			throw new NoSuchElementException("Frontier index " + i + ", size " + size);
+		}
+	}
+
+	private void grow() {
+		int[] bigger = Arrays.copyOf(buffer, 2 * buffer.length);
+		// move the wrapped-around part behind the old end
+		System.arraycopy(buffer, 0, bigger, buffer.length, head);
+		buffer = bigger;
+	}
+}
@@ -0,0 +1,292 @@
+package de.amr.maze.alg.core;
+
+import java.util.Random;
+
+import de.amr.graph.core.api.Graph;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.graph.grid.impl.Grid4Topology;
+import de.amr.graph.grid.impl.Grid8Topology;
+
+/**
+ * Primitive, allocation-free neighborhood of the cells of a grid with given size and topology.
+ * <p>
+ * Cells are numbered row by row like in the grid implementation. Directions are numbered
+ * {@code 0..dirCount()-1} clockwise starting with north, so sets of directions can be represented
+ * as bit masks where bit {@code d} stands for direction {@code d}. Non-existing neighbors are
+ * represented by {@link Graph#NO_VERTEX}.
+ * <p>
+ * The edges of the full grid are numbered implicitly: each edge is represented by the cell where it
+ * points towards one of the first {@code dirCount()/2} directions, and is encoded as
+ * {@code cell * (dirCount()/2) + dir}.
+ *
+ * @author Armin Reichert
+ */
+public final class GridNeighborhood {
+
+	private static final int[] DX_4 = { 0, 1, 0, -1 };
+	private static final int[] DY_4 = { -1, 0, 1, 0 };
+	private static final int[] DX_8 = { 0, 1, 1, 1, 0, -1, -1, -1 };
+	private static final int[] DY_8 = { -1, -1, 0, 1, 1, 1, 0, -1 };
+
+	// NTH_DIR[8 * dirs + k] = k-th direction (from 0) contained in bit mask dirs
+	private static final byte[] NTH_DIR = new byte[256 * 8];
+
+	static {
+		for (int dirs = 0; dirs < 256; ++dirs) {
+			int k = 0;
+			for (int dir = 0; dir < 8; ++dir) {
+				if ((dirs & (1 << dir)) != 0) {
+					NTH_DIR[8 * dirs + k++] = (byte) dir;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates the neighborhood for the given grid.
+	 *
+	 * @param grid
+	 *               a grid with 4- or 8-neighborhood topology
+	 * @return neighborhood of the grid cells
+	 */
+	public static GridNeighborhood of(GridGraph2D<?, ?> grid) {
+		if (grid.numCols() > 1 && grid.cell(1, 0) != 1) {
+			throw new IllegalArgumentException("Grid cells must be numbered row by row");
+		}
+		if (grid.getTopology() == Grid4Topology.get()) {
+			return new GridNeighborhood(grid.numCols(), grid.numRows(), DX_4, DY_4);
+		}
+		if (grid.getTopology() == Grid8Topology.get()) {
+			return new GridNeighborhood(grid.numCols(), grid.numRows(), DX_8, DY_8);
+		}
+		throw new IllegalStateException("Unknown grid topology");
+	}
+
+	/**
+	 * @param numCols
+	 *                  number of columns
+	 * @param numRows
+	 *                  number of rows
+	 * @return 4-neighborhood of a grid of the given size
+	 */
+	public static GridNeighborhood grid4(int numCols, int numRows) {
+		return new GridNeighborhood(numCols, numRows, DX_4, DY_4);
+	}
+
+	/**
+	 * @param numCols
+	 *                  number of columns
+	 * @param numRows
+	 *                  number of rows
+	 * @return 8-neighborhood of a grid of the given size
+	 */
+	public static GridNeighborhood grid8(int numCols, int numRows) {
+		return new GridNeighborhood(numCols, numRows, DX_8, DY_8);
+	}
+
+	/**
+	 * Selects a direction uniformly at random from the given set of directions.
+	 * 
+	 * @param dirs
+	 *               non-empty bit mask of directions
+	 * @param rnd
+	 *               random number generator
+	 * @return random direction from the set
+	 */
+	public static int randomDir(int dirs, Random rnd) {
+		for (int k = rnd.nextInt(Integer.bitCount(dirs)); k > 0; --k) {
+			dirs &= dirs - 1;
+		}
+		return Integer.numberOfTrailingZeros(dirs);
+	}
+
+	/**
+	 * Returns the direction with the given rank inside a set of directions, using a table lookup.
+	 * 
+	 * @param dirs
+	 *               bit mask of directions
+	 * @param k
+	 *               rank, {@code 0 <= k < Integer.bitCount(dirs)}
+	 * @return the {@code k}-th direction of the set in increasing order
+	 */
+	public static int nthDir(int dirs, int k) {
+		return NTH_DIR[8 * dirs + k];
+	}
+
+	private final int numCols;
+	private final int numRows;
+	private final int[] dx;
+	private final int[] dy;
+	private final int[] offset;
+
+	private GridNeighborhood(int numCols, int numRows, int[] dx, int[] dy) {
+		if (numCols < 1 || numRows < 1) {
+			throw new IllegalArgumentException(String.format("Illegal grid size: %d x %d", numCols, numRows));
+		}
+		if ((long) numCols * numRows > Integer.MAX_VALUE) {
+			throw new IllegalArgumentException(String.format("Grid too large: %d x %d", numCols, numRows));
+		}
+		this.numCols = numCols;
+		this.numRows = numRows;
+		this.dx = dx;
+		this.dy = dy;
+		offset = new int[dx.length];
+		for (int dir = 0; dir < dx.length; ++dir) {
+			offset[dir] = dy[dir] * numCols + dx[dir];
+		}
+	}
+
+	public int numCols() {
+		return numCols;
+	}
+
+	public int numRows() {
+		return numRows;
+	}
+
+	public int numCells() {
+		return numCols * numRows;
+	}
+
+	/**
+	 * @return number of directions (4 or 8)
+	 */
+	public int dirCount() {
+		return dx.length;
+	}
+
+	/**
+	 * @param dir
+	 *              direction
+	 * @return the opposite direction
+	 */
+	public int opposite(int dir) {
+		return (dir + dx.length / 2) % dx.length;
+	}
+
+	public int cell(int col, int row) {
+		return row * numCols + col;
+	}
+
+	public int col(int cell) {
+		return cell % numCols;
+	}
+
+	public int row(int cell) {
+		return cell / numCols;
+	}
+
+	/**
+	 * @param cell
+	 *               a cell
+	 * @param dir
+	 *               a direction
+	 * @return the neighbor towards the given direction or {@link Graph#NO_VERTEX} if there is no such
+	 *         neighbor
+	 */
+	public int neighbor(int cell, int dir) {
+		int col = cell % numCols + dx[dir], row = cell / numCols + dy[dir];
+		if (0 <= col && col < numCols && 0 <= row && row < numRows) {
+			return row * numCols + col;
+		}
+		return Graph.NO_VERTEX;
+	}
+
+	/**
+	 * Returns the index difference between a cell and its neighbor towards the given direction. Only
+	 * meaningful if the neighbor exists.
+	 * 
+	 * @param dir
+	 *              a direction
+	 * @return index offset of the neighbor towards this direction
+	 */
+	public int offset(int dir) {
+		return offset[dir];
+	}
+
+	/**
+	 * @return number of edges of the full grid
+	 */
+	public long numEdges() {
+		long count = 0;
+		for (int dir = 0; dir < dx.length / 2; ++dir) {
+			count += (long) (numCols - Math.abs(dx[dir])) * (numRows - Math.abs(dy[dir]));
+		}
+		return count;
+	}
+
+	/**
+	 * @return the codes of all edges of the full grid in increasing order
+	 */
+	public int[] edges() {
+		int half = dx.length / 2;
+		if ((long) numCells() * half > Integer.MAX_VALUE) {
+			throw new IllegalStateException(
+					String.format("Too many edges for int codes: %d x %d", numCols, numRows));
+		}
+		int[] edges = new int[(int) numEdges()];
+		int i = 0;
+		for (int cell = 0; cell < numCells(); ++cell) {
+			for (int dir = 0; dir < half; ++dir) {
+				if (neighbor(cell, dir) != Graph.NO_VERTEX) {
+					edges[i++] = cell * half + dir;
+				}
+			}
+		}
+		return edges;
+	}
+
+	/**
+	 * @param edge
+	 *               edge code
+	 * @return the cell where the edge starts
+	 */
+	public int edgeCell(int edge) {
+		return edge / (dx.length / 2);
+	}
+
+	/**
+	 * @param edge
+	 *               edge code
+	 * @return the direction of the edge, seen from its start cell
+	 */
+	public int edgeDir(int edge) {
+		return edge % (dx.length / 2);
+	}
+
+	/**
+	 * @param cell
+	 *               a cell
+	 * @return bit mask of the directions where the cell has a neighbor
+	 */
+	public int validDirs(int cell) {
+		int col = cell % numCols, row = cell / numCols;
+		int dirs = 0;
+		for (int dir = 0; dir < dx.length; ++dir) {
+			int ncol = col + dx[dir], nrow = row + dy[dir];
+			if (0 <= ncol && ncol < numCols && 0 <= nrow && nrow < numRows) {
+				dirs |= 1 << dir;
+			}
+		}
+		return dirs;
+	}
+
+	/**
+	 * Computes the valid directions of all cells, such that hot loops like random walks can look them
+	 * up instead of computing them from column and row.
+	 * 
+	 * @return table of the {@link #validDirs(int)} bit masks indexed by cell
+	 */
+	public byte[] validDirsTable() {
+		byte[] table = new byte[numCells()];
+		int interior = (1 << dx.length) - 1;
+		for (int row = 0; row < numRows; ++row) {
+			int first = row * numCols, last = first + numCols - 1;
+			boolean borderRow = row == 0 || row == numRows - 1;
+			for (int cell = first; cell <= last; ++cell) {
+				table[cell] = (byte) (borderRow || cell == first || cell == last ? validDirs(cell) : interior);
+			}
+		}
+		return table;
+	}
+}
@@ -0,0 +1,278 @@
+package de.amr.maze.alg.core;
+
+import java.util.Arrays;
+
+import de.amr.graph.core.api.Graph;
+import de.amr.graph.grid.api.GridGraph2D;
+
+/**
+ * Reusable workspace for reachability searches along the passages of a grid whose edges change
+ * between the searches.
+ * <p>
+ * The visited marks are stamped with the number of the current search, so starting a search takes
+ * constant time, and the queue or stack is allocated once. A search only costs the cells it touches.
+ * The heuristic searches use the Manhattan distance.
+ *
+ * @author Armin Reichert
+ */
+public final class GridSearch {
+
+	/**
+	 * Search strategy. All strategies give the same answer, they differ in the cells they touch.
+	 */
+	public enum Mode {
+		/** Breadth-first search from the source. */
+		BFS,
+		/** Depth-first search from the source. */
+		DFS,
+		/** Best-first search from the source, guided by the distance to the target. */
+		BEST_FIRST,
+		/** Depth-first search from the source, continuing with the neighbor closest to the target. */
+		HILL_CLIMBING,
+		/** Breadth-first searches from both cells, expanding the smaller frontier until they meet. */
+		BIDI_BFS,
+		/** Best-first searches from both cells, each guided by the distance to the other cell. */
+		BIDI_BEST_FIRST
+	}
+
+	// stamps are 2 * search (reached from the source) and 2 * search + 1 (reached from the target)
+	private static final int MAX_SEARCH = Integer.MAX_VALUE / 2 - 1;
+
+	private final GridGraph2D<?, ?> grid;
+	private final GridNeighborhood neighborhood;
+	private final int[] mark;
+	private final int[] cells; // queue or stack, the search from the target uses it from the end
+	private final int[] neighbors = new int[8];
+	private final int[] distances = new int[8];
+	private IndexedMinHeap forwardHeap, backwardHeap; // created on first use
+	private int search;
+	private int numVisited;
+
+	/**
+	 * Creates a search workspace for the given grid.
+	 *
+	 * @param grid
+	 *               a grid with 4- or 8-neighborhood topology
+	 */
+	public GridSearch(GridGraph2D<?, ?> grid) {
+		this.grid = grid;
+		neighborhood = GridNeighborhood.of(grid);
+		mark = new int[grid.numVertices()];
+		cells = new int[grid.numVertices()];
+	}
+
+	/**
+	 * @return number of cells visited by the last search
+	 */
+	public int numVisited() {
+		return numVisited;
+	}
+
+	/**
+	 * Tells if there is a path between the given cells.
+	 *
+	 * @param mode
+	 *                 search strategy
+	 * @param source
+	 *                 a cell
+	 * @param target
+	 *                 a cell
+	 * @return {@code true} if the cells are connected by a path
+	 */
+	public boolean connected(Mode mode, int source, int target) {
+		if (search == MAX_SEARCH) {
+			Arrays.fill(mark, 0);
+			search = 0;
+		}
+		++search;
+		numVisited = 0;
+		if (source == target) {
+			return true;
+		}
+		switch (mode) {
+		case BFS:
+			return searchQueue(source, target);
+		case DFS:
+			return searchStack(source, target, false);
+		case HILL_CLIMBING:
+			return searchStack(source, target, true);
+		case BEST_FIRST:
+			return searchBestFirst(source, target);
+		case BIDI_BFS:
+			return searchBidiQueue(source, target);
+		case BIDI_BEST_FIRST:
+			return searchBidiBestFirst(source, target);
+		default:
+			throw new IllegalArgumentException("Unknown search mode: " + mode);
+		}
+	}
+
+	private boolean searchQueue(int source, int target) {
+		int stamp = 2 * search, head = 0, tail = 0;
+		cells[tail++] = visit(source, stamp);
+		while (head < tail) {
+			int cell = cells[head++];
+			for (int k = 0, n = passages(cell); k < n; ++k) {
+				int neighbor = neighbors[k];
+				if (neighbor == target) {
+					return true;
+				}
+				if (mark[neighbor] != stamp) {
+					cells[tail++] = visit(neighbor, stamp);
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean searchStack(int source, int target, boolean closestFirst) {
+		int stamp = 2 * search, top = 0;
+		cells[top++] = visit(source, stamp);
+		while (top > 0) {
+			int cell = cells[--top];
+			int n = 0;
+			for (int k = 0, passages = passages(cell); k < passages; ++k) {
+				int neighbor = neighbors[k];
+				if (neighbor == target) {
+					return true;
+				}
+				if (mark[neighbor] != stamp) {
+					neighbors[n++] = neighbor;
+				}
+			}
+			if (closestFirst) {
+				sortByDistanceDescending(n, target);
+			}
+			for (int k = 0; k < n; ++k) {
+				cells[top++] = visit(neighbors[k], stamp);
+			}
+		}
+		return false;
+	}
+
+	private boolean searchBestFirst(int source, int target) {
+		int stamp = 2 * search;
+		IndexedMinHeap heap = forwardHeap();
+		heap.insert(visit(source, stamp), distance(source, target));
+		while (!heap.isEmpty()) {
+			int cell = heap.extractMin();
+			for (int k = 0, n = passages(cell); k < n; ++k) {
+				int neighbor = neighbors[k];
+				if (neighbor == target) {
+					heap.clear();
+					return true;
+				}
+				if (mark[neighbor] != stamp) {
+					heap.insert(visit(neighbor, stamp), distance(neighbor, target));
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean searchBidiQueue(int source, int target) {
+		int forward = 2 * search, backward = forward + 1;
+		int forwardHead = 0, forwardTail = 0, backwardHead = cells.length - 1, backwardTail = cells.length - 1;
+		cells[forwardTail++] = visit(source, forward);
+		cells[backwardTail--] = visit(target, backward);
+		while (forwardHead < forwardTail && backwardHead > backwardTail) {
+			boolean fromSource = forwardTail - forwardHead <= backwardHead - backwardTail;
+			int cell = fromSource ? cells[forwardHead++] : cells[backwardHead--];
+			int own = fromSource ? forward : backward, other = fromSource ? backward : forward;
+			for (int k = 0, n = passages(cell); k < n; ++k) {
+				int neighbor = neighbors[k];
+				if (mark[neighbor] == other) {
+					return true;
+				}
+				if (mark[neighbor] != own) {
+					visit(neighbor, own);
+					if (fromSource) {
+						cells[forwardTail++] = neighbor;
+					}
+					else {
+						cells[backwardTail--] = neighbor;
+					}
+				}
+			}
+		}
+		return false;
+	}
+
+	private boolean searchBidiBestFirst(int source, int target) {
+		int forward = 2 * search, backward = forward + 1;
+		IndexedMinHeap forwardHeap = forwardHeap(), backwardHeap = backwardHeap();
+		forwardHeap.insert(visit(source, forward), distance(source, target));
+		backwardHeap.insert(visit(target, backward), distance(target, source));
+		boolean connected = false;
+		while (!connected && !forwardHeap.isEmpty() && !backwardHeap.isEmpty()) {
+			boolean fromSource = forwardHeap.size() <= backwardHeap.size();
+			IndexedMinHeap heap = fromSource ? forwardHeap : backwardHeap;
+			int own = fromSource ? forward : backward, other = fromSource ? backward : forward;
+			int goal = fromSource ? target : source;
+			int cell = heap.extractMin();
+			for (int k = 0, n = passages(cell); k < n; ++k) {
+				int neighbor = neighbors[k];
+				if (mark[neighbor] == other) {
+					connected = true;
+					break;
+				}
+				if (mark[neighbor] != own) {
+					heap.insert(visit(neighbor, own), distance(neighbor, goal));
+				}
+			}
+		}
+		forwardHeap.clear();
+		backwardHeap.clear();
+		return connected;
+	}
+
+	private int visit(int cell, int stamp) {
+		mark[cell] = stamp;
+		++numVisited;
+		return cell;
+	}
+
+	/** Stores the neighbors connected to the cell by a passage and returns their number. */
+	private int passages(int cell) {
+		int n = 0;
+		for (int dir = 0; dir < neighborhood.dirCount(); ++dir) {
+			int neighbor = neighborhood.neighbor(cell, dir);
+			if (neighbor != Graph.NO_VERTEX && grid.adjacent(cell, neighbor)) {
+				neighbors[n++] = neighbor;
+			}
+		}
+		return n;
+	}
+
+	/** Sorts the first n neighbors such that the one closest to the target comes last (top of stack). */
+	private void sortByDistanceDescending(int n, int target) {
+		for (int k = 0; k < n; ++k) {
+			int neighbor = neighbors[k], d = distance(neighbor, target), j = k;
+			for (; j > 0 && distances[j - 1] < d; --j) {
+				neighbors[j] = neighbors[j - 1];
+				distances[j] = distances[j - 1];
+			}
+			neighbors[j] = neighbor;
+			distances[j] = d;
+		}
+	}
+
+	private int distance(int cell, int other) {
+		return Math.abs(neighborhood.col(cell) - neighborhood.col(other))
+				+ Math.abs(neighborhood.row(cell) - neighborhood.row(other));
+	}
+
+	private IndexedMinHeap forwardHeap() {
+		if (forwardHeap == null) {
+			forwardHeap = new IndexedMinHeap(mark.length);
+		}
+		return forwardHeap;
+	}
+
+	private IndexedMinHeap backwardHeap() {
+		if (backwardHeap == null) {
+			backwardHeap = new IndexedMinHeap(mark.length);
+		}
+		return backwardHeap;
+	}
+}
@@ -0,0 +1,175 @@
+package de.amr.maze.alg.core;
+
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Binary min-heap of the elements {@code 0, ..., n - 1} with int keys, stored in int arrays.
+ * <p>
+ * Each element is contained at most once. Because the heap position of each element is tracked, the
+ * key of a contained element can be decreased in logarithmic time.
+ *
+ * @author Armin Reichert
+ */
+public final class IndexedMinHeap implements IndexedPriorityQueue {
+
+	private final int[] heap;
+	private final int[] position; // position + 1 in heap, 0 = not contained
+	private final int[] key;
+	private int size;
+
+	/**
+	 * Creates an empty heap for the elements {@code 0, ..., n - 1}.
+	 *
+	 * @param n
+	 *            number of elements
+	 */
+	public IndexedMinHeap(int n) {
+		heap = new int[n];
+		position = new int[n];
+		key = new int[n];
+	}
+
+	public int size() {
+		return size;
+	}
+
+	@Override
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	/**
+	 * Removes all elements. Takes time proportional to the number of contained elements, not to
+	 * {@code n}.
+	 */
+	public void clear() {
+		for (int i = 0; i < size; ++i) {
+			position[heap[i]] = 0;
+		}
+		size = 0;
+	}
+
+	/**
+	 * @param element
+	 *                  an element
+	 * @return {@code true} if the element is contained in the heap
+	 */
+	@Override
+	public boolean contains(int element) {
+		return position[element] != 0;
+	}
+
+	/**
+	 * @param element
+	 *                  a contained element
+	 * @return the key of the element
+	 */
+	@Override
+	public int key(int element) {
+		return key[element];
+	}
+
+	/**
+	 * Inserts an element which is not contained in the heap.
+	 *
+	 * @param element
+	 *                  an element
+	 * @param elementKey
+	 *                  its key
+	 */
+	@Override
+	public void insert(int element, int elementKey) {
+		if (contains(element)) {
+			throw new IllegalStateException("Element already contained: " + element);
+		}
+		key[element] = elementKey;
+		heap[size] = element;
+		position[element] = size + 1;
+		siftUp(size++);
+	}
+
+	/**
+	 * Decreases the key of a contained element. Does nothing if the new key is not smaller.
+	 *
+	 * @param element
+	 *                  a contained element
+	 * @param newKey
+	 *                  the new key
+	 */
+	@Override
+	public void decreaseKey(int element, int newKey) {
+		if (newKey < key[element]) {
+			key[element] = newKey;
+			siftUp(position[element] - 1);
+		}
+	}
+
+	/**
+	 * Removes and returns an element with the minimum key. Elements with the same key are not chosen at
+	 * random.
+	 *
+	 * @param rnd
+	 *              not used
+	 * @return element with minimum key
+	 */
+	@Override
+	public int extractMin(Random rnd) {
+		return extractMin();
+	}
+
+	/**
+	 * Removes and returns an element with the minimum key.
+	 *
+	 * @return element with minimum key
+	 */
+	public int extractMin() {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		int min = heap[0];
+		position[min] = 0;
+		if (--size > 0) {
+			heap[0] = heap[size];
+			position[heap[0]] = 1;
+			siftDown(0);
+		}
+		return min;
+	}
+
+	private void siftUp(int i) {
+		int element = heap[i], elementKey = key[element];
+		while (i > 0) {
+			int parent = (i - 1) >>> 1;
+			if (key[heap[parent]] <= elementKey) {
+				break;
+			}
+			heap[i] = heap[parent];
+			position[heap[i]] = i + 1;
+			i = parent;
+		}
+		heap[i] = element;
+		position[element] = i + 1;
+	}
+
+	private void siftDown(int i) {
+		int element = heap[i], elementKey = key[element];
+		while (true) {
+			int child = 2 * i + 1;
+			if (child >= size) {
+				break;
+			}
+			if (child + 1 < size && key[heap[child + 1]] < key[heap[child]]) {
+				++child;
+			}
+			if (key[heap[child]] >= elementKey) {
+				break;
+			}
+			heap[i] = heap[child];
+			position[heap[i]] = i + 1;
+			i = child;
+		}
+		heap[i] = element;
+		position[element] = i + 1;
+	}
+}
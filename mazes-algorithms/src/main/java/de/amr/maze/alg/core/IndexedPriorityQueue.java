@@ -0,0 +1,58 @@
+package de.amr.maze.alg.core;
+
+import java.util.Random;
+
+/**
+ * Priority queue of the elements {@code 0, ..., n - 1} with int keys, where the key of a contained
+ * element can be decreased.
+ *
+ * @author Armin Reichert
+ */
+public interface IndexedPriorityQueue {
+
+	boolean isEmpty();
+
+	/**
+	 * @param element
+	 *                  an element
+	 * @return {@code true} if the element is contained in the queue
+	 */
+	boolean contains(int element);
+
+	/**
+	 * @param element
+	 *                  a contained element
+	 * @return the key of the element
+	 */
+	int key(int element);
+
+	/**
+	 * Inserts an element which is not contained in the queue.
+	 *
+	 * @param element
+	 *                     an element
+	 * @param elementKey
+	 *                     its key
+	 */
+	void insert(int element, int elementKey);
+
+	/**
+	 * Decreases the key of a contained element. Does nothing if the new key is not smaller.
+	 *
+	 * @param element
+	 *                  a contained element
+	 * @param newKey
+	 *                  the new key
+	 */
+	void decreaseKey(int element, int newKey);
+
+	/**
+	 * Removes and returns an element with the minimum key.
+	 *
+	 * @param rnd
+	 *              random number generator, used by queues choosing among several elements with minimum
+	 *              key
+	 * @return element with minimum key
+	 */
+	int extractMin(Random rnd);
+}
@@ -1,33 +1,203 @@
 package de.amr.maze.alg.core;
 
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Optional;
 import java.util.Random;
+import java.util.stream.Collectors;
+import java.util.stream.IntStream;
+import java.util.stream.Stream;
 
+import de.amr.graph.core.api.Graph;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
 
 /**
  * Maze generator base class.
+ * <p>
+ * The traversal states of the cells used by the generation algorithm are kept in a packed
+ * {@link CellStates store} owned by the generator. They are written into the grid vertex labels
+ * only if the generator is not headless (for animating the generation) or if
+ * {@link #copyCellStatesToGrid()} is called. Each call of {@link #createMaze(int, int)} starts with
+ * the states of the grid vertex labels, so a generator can be used for more than one maze.
  * 
  * @author Armin Reichert
  */
 public abstract class MazeGenerator {
 
 	protected final GridGraph2D<TraversalState, Integer> grid;
-	protected final Random rnd = new Random();
+	protected final GridNeighborhood neighborhood;
+	protected Random rnd = new Random();
+	private CellStates cellStates;
+	private boolean headless;
+	private TopologyCache topologyCache = TopologyCache.shared();
 
 	public MazeGenerator(GridGraph2D<TraversalState, Integer> grid) {
 		this.grid = grid;
+		this.neighborhood = GridNeighborhood.of(grid);
+		this.cellStates = new CellStates(grid.numVertices());
 	}
 
 	/**
-	 * Creates a maze starting at the grid cell {@code (x, y)}.
+	 * @return the random number generator used by this maze generator
+	 */
+	public Random getRandom() {
+		return rnd;
+	}
+
+	/**
+	 * Sets the random number generator used by this maze generator. Using a seeded generator, e.g.
+	 * {@link MazeRandom#splittable(long)}, makes maze creation reproducible.
+	 * 
+	 * @param rnd
+	 *              random number generator
+	 */
+	public void setRandom(Random rnd) {
+		this.rnd = rnd;
+	}
+
+	/**
+	 * @return {@code true} if this generator runs in headless mode
+	 */
+	public boolean isHeadless() {
+		return headless;
+	}
+
+	/**
+	 * Sets the headless mode. In headless mode, the generator skips all grid updates that are only
+	 * needed for visualizing the generation process, for example cell states that are never read by
+	 * the algorithm itself. Use this mode if the maze is not rendered while it is created.
+	 * 
+	 * @param headless
+	 *                   if the generator runs headless
+	 */
+	public void setHeadless(boolean headless) {
+		this.headless = headless;
+	}
+
+	/**
+	 * @return the cache for grid data depending only on grid size and topology
+	 */
+	public TopologyCache getTopologyCache() {
+		return topologyCache;
+	}
+
+	/**
+	 * Sets the cache for grid data depending only on grid size and topology, by default the
+	 * {@link TopologyCache#shared() shared} cache.
+	 * 
+	 * @param topologyCache
+	 *                        topology cache
+	 */
+	public void setTopologyCache(TopologyCache topologyCache) {
+		this.topologyCache = topologyCache;
+	}
+
+	/**
+	 * Lets the given generator, which works on the same grid as this generator, use the settings and
+	 * the cell states of this generator (random number generator, headless mode, topology cache).
+	 * 
+	 * @param other
+	 *                other generator
+	 * @return the other generator
+	 */
+	protected <G extends MazeGenerator> G shareSettings(G other) {
+		MazeGenerator target = other;
+		target.rnd = rnd;
+		target.headless = headless;
+		target.topologyCache = topologyCache;
+		target.cellStates = cellStates;
+		return other;
+	}
+
+	/**
+	 * @param cell
+	 *               grid cell
+	 * @return the traversal state of the cell
+	 */
+	public TraversalState getCellState(int cell) {
+		return cellStates.get(cell);
+	}
+
+	/**
+	 * Writes the traversal states used by the algorithm of all cells into the grid. States that are
+	 * only set for visualization are not stored by the generator.
+	 */
+	public void copyCellStatesToGrid() {
+		for (int cell = 0; cell < cellStates.numCells(); ++cell) {
+			grid.set(cell, cellStates.get(cell));
+		}
+	}
+
+	/**
+	 * Creates a maze starting at the grid cell {@code (x, y)}. The cell states used by the algorithm
+	 * are first read from the grid vertex labels.
 	 * 
 	 * @param x
 	 *            x-coordinate (column) of start cell
 	 * @param y
 	 *            y-coordinate (row) of start cell
 	 */
-	public abstract void createMaze(int x, int y);
+	public final void createMaze(int x, int y) {
+		cellStates.load(grid::get);
+		generateMaze(x, y);
+	}
+
+	/**
+	 * Runs the maze generation algorithm starting at the grid cell {@code (x, y)}.
+	 * 
+	 * @param x
+	 *            x-coordinate (column) of start cell
+	 * @param y
+	 *            y-coordinate (row) of start cell
+	 */
+	protected abstract void generateMaze(int x, int y);
+
+	/**
+	 * Sets the traversal state of a cell. The grid is only updated if this generator is not headless.
+	 * 
+	 * @param cell
+	 *                grid cell
+	 * @param state
+	 *                new cell state
+	 */
+	protected void setCellState(int cell, TraversalState state) {
+		cellStates.set(cell, state);
+		if (!headless) {
+			grid.set(cell, state);
+		}
+	}
+
+	/**
+	 * Sets the traversal state of all cells. The grid is only updated if this generator is not
+	 * headless.
+	 * 
+	 * @param state
+	 *                new cell state
+	 */
+	protected void setAllCellStates(TraversalState state) {
+		cellStates.fill(state);
+		if (!headless) {
+			grid.setDefaultVertexLabel(cell -> state);
+		}
+	}
+
+	/**
+	 * Sets a cell state that is only used for visualizing the generation process. Does nothing in
+	 * headless mode.
+	 * 
+	 * @param cell
+	 *                grid cell
+	 * @param state
+	 *                new cell state
+	 */
+	protected void showCellState(int cell, TraversalState state) {
+		if (!headless) {
+			grid.set(cell, state);
+		}
+	}
 
 	/**
 	 * Tells if the given cell is unvisited by the maze generator.
@@ -37,7 +207,7 @@ public abstract class MazeGenerator {
 	 * @return {@code true} if cell has not yet been visited
 	 */
 	protected boolean isCellUnvisited(int cell) {
-		return grid.get(cell) == TraversalState.UNVISITED;
+		return cellStates.isUnvisited(cell);
 	}
 
 	/**
@@ -48,7 +218,7 @@ public abstract class MazeGenerator {
 	 * @return {@code true} if cell has already been visited
 	 */
 	protected boolean isCellVisited(int cell) {
-		return grid.get(cell) == TraversalState.VISITED;
+		return cellStates.isVisited(cell);
 	}
 
 	/**
@@ -59,7 +229,112 @@ public abstract class MazeGenerator {
 	 * @return {@code true} if cell has been completed
 	 */
 	protected boolean isCellCompleted(int cell) {
-		return grid.get(cell) == TraversalState.COMPLETED;
+		return cellStates.isCompleted(cell);
+	}
+
+	/**
+	 * @param cell
+	 *               grid cell
+	 * @return bit mask of the directions towards unvisited neighbors of the cell
+	 */
+	protected int unvisitedNeighborDirs(int cell) {
+		int unvisited = 0;
+		for (int dirs = neighborhood.validDirs(cell); dirs != 0; dirs &= dirs - 1) {
+			int dir = Integer.numberOfTrailingZeros(dirs);
+			if (isCellUnvisited(neighborhood.neighbor(cell, dir))) {
+				unvisited |= 1 << dir;
+			}
+		}
+		return unvisited;
+	}
+
+	/**
+	 * @param cell
+	 *               grid cell
+	 * @return random unvisited neighbor of the cell or {@link Graph#NO_VERTEX} if there is none
+	 */
+	protected int randomUnvisitedNeighbor(int cell) {
+		int dirs = unvisitedNeighborDirs(cell);
+		return dirs != 0 ? neighborhood.neighbor(cell, randomDir(dirs)) : Graph.NO_VERTEX;
+	}
+
+	/**
+	 * Selects a direction uniformly at random from the given set of directions.
+	 * 
+	 * @param dirs
+	 *               non-empty bit mask of directions
+	 * @return random direction from the set
+	 */
+	protected int randomDir(int dirs) {
+		return GridNeighborhood.randomDir(dirs, rnd);
+	}
+
+	/**
+	 * Returns the elements of the given stream in random order using this generator's random numbers.
+	 * 
+	 * @param stream
+	 *                 stream of ints
+	 * @return permuted stream
+	 */
+	protected IntStream permute(IntStream stream) {
+		int[] elements = stream.toArray();
+		shuffle(elements, 0, elements.length);
+		return Arrays.stream(elements);
 	}
 
+	/**
+	 * Shuffles the given array range in place using this generator's random numbers.
+	 * 
+	 * @param elements
+	 *                   array
+	 * @param from
+	 *                   first index of range (inclusive)
+	 * @param to
+	 *                   last index of range (exclusive)
+	 */
+	protected void shuffle(int[] elements, int from, int to) {
+		for (int i = to - 1; i > from; --i) {
+			int j = from + rnd.nextInt(i - from + 1);
+			int tmp = elements[i];
+			elements[i] = elements[j];
+			elements[j] = tmp;
+		}
+	}
+
+	/**
+	 * Returns the elements of the given stream in random order using this generator's random numbers.
+	 * 
+	 * @param stream
+	 *                 stream of objects
+	 * @return permuted stream
+	 */
+	protected <T> Stream<T> permute(Stream<T> stream) {
+		List<T> elements = stream.collect(Collectors.toCollection(ArrayList::new));
+		Collections.shuffle(elements, rnd);
+		return elements.stream();
+	}
+
+	/**
+	 * Selects a random element from the given stream using this generator's random numbers.
+	 * 
+	 * @param stream
+	 *                 stream of ints
+	 * @return random element or empty if stream is empty
+	 */
+	protected Optional<Integer> randomElement(IntStream stream) {
+		int[] elements = stream.toArray();
+		return elements.length == 0 ? Optional.empty() : Optional.of(elements[rnd.nextInt(elements.length)]);
+	}
+
+	/**
+	 * Selects a random element from the given stream using this generator's random numbers.
+	 * 
+	 * @param stream
+	 *                 stream of objects
+	 * @return random element or empty if stream is empty
+	 */
+	protected <T> Optional<T> randomElement(Stream<T> stream) {
+		List<T> elements = stream.collect(Collectors.toList());
+		return elements.isEmpty() ? Optional.empty() : Optional.of(elements.get(rnd.nextInt(elements.size())));
+	}
 }
\ No newline at end of file
@@ -0,0 +1,262 @@
+package de.amr.maze.alg.core;
+
+import java.util.Random;
+import java.util.SplittableRandom;
+
+/**
+ * Seedable random number generator for maze generators.
+ * <p>
+ * Extends {@link Random} such that it can be used everywhere a {@code Random} is expected, but does
+ * not use the atomically updated seed of the base class. A generator is not thread-safe, worker
+ * threads should use their own generator obtained by {@link #split()}.
+ *
+ * @author Armin Reichert
+ */
+public abstract class MazeRandom extends Random {
+
+	/**
+	 * Creates a generator based on {@link SplittableRandom}.
+	 *
+	 * @param seed
+	 *               initial seed
+	 * @return new generator
+	 */
+	public static MazeRandom splittable(long seed) {
+		return new SplittableMazeRandom(new SplittableRandom(seed));
+	}
+
+	/**
+	 * Creates a generator using the "xoshiro256**" algorithm.
+	 *
+	 * @param seed
+	 *               initial seed
+	 * @return new generator
+	 *
+	 * @see <a href="http://prng.di.unimi.it/">xoshiro / xoroshiro generators and the PRNG shootout</a>
+	 */
+	public static MazeRandom xoshiro(long seed) {
+		return new XoshiroMazeRandom(seed);
+	}
+
+	/**
+	 * Stateless random function (SplitMix64 finalizer applied to seed and index). Can be used to
+	 * assign random numbers to the elements of a large set in parallel, independent of the processing
+	 * order.
+	 *
+	 * @param seed
+	 *                seed
+	 * @param index
+	 *                element index
+	 * @return pseudo-random value for the element
+	 */
+	public static long hash(long seed, long index) {
+		return mix(seed + (index + 1) * 0x9e3779b97f4a7c15L);
+	}
+
+	/**
+	 * Stateless random function returning a value uniformly distributed in {@code [0, bound)} for an
+	 * element. Like {@link #nextInt(int)}, the multiply-shift result is rejected if it falls into the
+	 * biased low range; then further hash values derived from the element's hash value are drawn.
+	 *
+	 * @param seed
+	 *                seed
+	 * @param index
+	 *                element index
+	 * @param bound
+	 *                upper bound (exclusive), must be positive
+	 * @return pseudo-random value in {@code [0, bound)} for the element
+	 */
+	public static int hash(long seed, long index, int bound) {
+		long h = hash(seed, index);
+		long m = (h >>> 32) * bound;
+		if ((m & 0xFFFF_FFFFL) < bound) {
+			long threshold = (0x1_0000_0000L - bound) % bound;
+			for (long retry = 0; (m & 0xFFFF_FFFFL) < threshold; ++retry) {
+				m = (hash(h, retry) >>> 32) * bound;
+			}
+		}
+		return (int) (m >>> 32);
+	}
+
+	private static long mix(long z) {
+		z = (z ^ (z >>> 30)) * 0xbf58476d1ce4e5b9L;
+		z = (z ^ (z >>> 27)) * 0x94d049bb133111ebL;
+		return z ^ (z >>> 31);
+	}
+
+	private final boolean constructed;
+
+	protected MazeRandom() {
+		super(0);
+		constructed = true;
+	}
+
+	/**
+	 * Reseeds this generator. Afterwards it produces the same sequence as a new generator of the same
+	 * kind created with the given seed.
+	 */
+	@Override
+	public void setSeed(long seed) {
+		super.setSeed(seed); // clears the cached Gaussian of the base class
+		// called by the constructor of the base class before this generator is initialized
+		if (constructed) {
+			reseed(seed);
+		}
+	}
+
+	/**
+	 * Initializes the state of this generator from the given seed.
+	 *
+	 * @param seed
+	 *               seed
+	 */
+	protected abstract void reseed(long seed);
+
+	/**
+	 * Returns a new generator whose sequence is independent of the sequence of this generator. The
+	 * returned generator is determined by the state of this generator, so splitting is reproducible.
+	 *
+	 * @return new generator
+	 */
+	public abstract MazeRandom split();
+
+	@Override
+	public abstract long nextLong();
+
+	@Override
+	protected int next(int bits) {
+		return (int) (nextLong() >>> (64 - bits));
+	}
+
+	@Override
+	public int nextInt() {
+		return (int) (nextLong() >>> 32);
+	}
+
+	@Override
+	public int nextInt(int bound) {
+		if (bound <= 0) {
+			throw new IllegalArgumentException("bound must be positive");
+		}
+		// Lemire's multiply-shift method with rejection of the biased low range
+		long m = (nextLong() >>> 32) * bound;
+		if ((m & 0xFFFF_FFFFL) < bound) {
+			long threshold = (0x1_0000_0000L - bound) % bound;
+			while ((m & 0xFFFF_FFFFL) < threshold) {
+				m = (nextLong() >>> 32) * bound;
+			}
+		}
+		return (int) (m >>> 32);
+	}
+
+	@Override
+	public boolean nextBoolean() {
+		return nextLong() < 0;
+	}
+
+	@Override
+	public float nextFloat() {
+		return (nextLong() >>> 40) * 0x1.0p-24f;
+	}
+
+	@Override
+	public double nextDouble() {
+		return (nextLong() >>> 11) * 0x1.0p-53;
+	}
+
+	private static class SplittableMazeRandom extends MazeRandom {
+
+		private SplittableRandom rnd;
+
+		SplittableMazeRandom(SplittableRandom rnd) {
+			this.rnd = rnd;
+		}
+
+		@Override
+		protected void reseed(long seed) {
+			rnd = new SplittableRandom(seed);
+		}
+
+		@Override
+		public MazeRandom split() {
+			return new SplittableMazeRandom(rnd.split());
+		}
+
+		@Override
+		public long nextLong() {
+			return rnd.nextLong();
+		}
+	}
+
+	private static class XoshiroMazeRandom extends MazeRandom {
+
+		private static final long[] JUMP = { 0x180ec6d33cfd0abaL, 0xd5a61266f0c9392cL, 0xa9582618e03fc9aaL,
+				0x39abdc4529b1661cL };
+
+		private long s0, s1, s2, s3;
+
+		XoshiroMazeRandom(long seed) {
+			reseed(seed);
+		}
+
+		private XoshiroMazeRandom(long s0, long s1, long s2, long s3) {
+			this.s0 = s0;
+			this.s1 = s1;
+			this.s2 = s2;
+			this.s3 = s3;
+		}
+
+		@Override
+		protected void reseed(long seed) {
+			// initialize state from seed using SplitMix64 as recommended by the authors
+			long x = seed;
+			s0 = mix(x += 0x9e3779b97f4a7c15L);
+			s1 = mix(x += 0x9e3779b97f4a7c15L);
+			s2 = mix(x += 0x9e3779b97f4a7c15L);
+			s3 = mix(x + 0x9e3779b97f4a7c15L);
+		}
+
+		@Override
+		public long nextLong() {
+			long result = Long.rotateLeft(s1 * 5, 7) * 9;
+			long t = s1 << 17;
+			s2 ^= s0;
+			s3 ^= s1;
+			s1 ^= s2;
+			s0 ^= s3;
+			s2 ^= t;
+			s3 = Long.rotateLeft(s3, 45);
+			return result;
+		}
+
+		/**
+		 * The returned generator continues the current sequence, this generator jumps 2^128 steps
+		 * ahead. So the sequences do not overlap.
+		 */
+		@Override
+		public MazeRandom split() {
+			XoshiroMazeRandom copy = new XoshiroMazeRandom(s0, s1, s2, s3);
+			jump();
+			return copy;
+		}
+
+		private void jump() {
+			long t0 = 0, t1 = 0, t2 = 0, t3 = 0;
+			for (long jump : JUMP) {
+				for (int b = 0; b < 64; ++b) {
+					if ((jump & (1L << b)) != 0) {
+						t0 ^= s0;
+						t1 ^= s1;
+						t2 ^= s2;
+						t3 ^= s3;
+					}
+					nextLong();
+				}
+			}
+			s0 = t0;
+			s1 = t1;
+			s2 = t2;
+			s3 = t3;
+		}
+	}
+}
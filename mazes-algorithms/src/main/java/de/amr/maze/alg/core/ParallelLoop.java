@@ -0,0 +1,77 @@
+package de.amr.maze.alg.core;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Fork/join loop over an int range, used by the parallel maze generators.
+ *
+ * @author Armin Reichert
+ */
+public final class ParallelLoop {
+
+	/**
+	 * Action executed for a sub-range of the loop.
+	 */
+	@FunctionalInterface
+	public interface RangeAction {
+
+		/**
+		 * @param from
+		 *               first index (inclusive)
+		 * @param to
+		 *               last index (exclusive)
+		 */
+		void run(int from, int to);
+	}
+
+	private ParallelLoop() {
+	}
+
+	/**
+	 * Runs the given action for the range {@code from, ..., to - 1}, which is split into sub-ranges of
+	 * at most {@code grain} indices executed in parallel. Returns when all sub-ranges are done.
+	 *
+	 * @param pool
+	 *                 pool executing the sub-ranges
+	 * @param from
+	 *                 first index (inclusive)
+	 * @param to
+	 *                 last index (exclusive)
+	 * @param grain
+	 *                 maximum size of sub-ranges
+	 * @param action
+	 *                 action executed for each sub-range
+	 */
+	public static void forRange(ForkJoinPool pool, int from, int to, int grain, RangeAction action) {
+		if (from < to) {
+			pool.invoke(new RangeTask(from, to, Math.max(1, grain), action));
+		}
+	}
+
+	private static class RangeTask extends RecursiveAction {
+
+		private final int from;
+		private final int to;
+		private final int grain;
+		private final RangeAction action;
+
+		RangeTask(int from, int to, int grain, RangeAction action) {
+			this.from = from;
+			this.to = to;
+			this.grain = grain;
+			this.action = action;
+		}
+
+		@Override
+		protected void compute() {
+			if (to - from <= grain) {
+				action.run(from, to);
+			}
+			else {
+				int middle = (from + to) >>> 1;
+				invokeAll(new RangeTask(from, middle, grain, action), new RangeTask(middle, to, grain, action));
+			}
+		}
+	}
+}
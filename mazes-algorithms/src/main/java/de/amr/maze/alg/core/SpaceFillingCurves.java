@@ -0,0 +1,203 @@
+package de.amr.maze.alg.core;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Space-filling curves over a square of {@code n x n} cells, computed directly from the curve index.
+ * <p>
+ * A curve maps each index {@code d} from {@code 0, ..., n * n - 1} to the square position of the
+ * {@code d}-th cell on the curve, packed as {@code col << 32 | row} with row 0 at the top. Consecutive
+ * positions are neighbors. No grid or turtle is needed to walk the curve, so the curve order of a
+ * grid can be computed into a primitive array, also in parallel chunks.
+ *
+ * @author Armin Reichert
+ */
+public final class SpaceFillingCurves {
+
+	/**
+	 * Maps curve indices to square positions.
+	 */
+	@FunctionalInterface
+	public interface Curve {
+
+		/**
+		 * @param n
+		 *            side length of the square
+		 * @param d
+		 *            curve index, {@code 0 <= d < n * n}
+		 * @return position of the cell with this index, packed as {@code col << 32 | row}
+		 */
+		long position(int n, long d);
+	}
+
+	private static final int CHUNK_SIZE = 1 << 16;
+
+	private SpaceFillingCurves() {
+	}
+
+	/**
+	 * Hilbert curve starting at the top-left and ending at the top-right corner.
+	 *
+	 * @param n
+	 *            side length, a power of 2
+	 * @param d
+	 *            curve index
+	 * @return packed position
+	 */
+	public static long hilbert(int n, long d) {
+		int x = 0, y = 0;
+		for (int s = 1; s < n; s <<= 1) {
+			int rx = (int) (1 & (d >>> 1)), ry = (int) (1 & (d ^ rx));
+			if (ry == 0) {
+				if (rx == 1) {
+					x = s - 1 - x;
+					y = s - 1 - y;
+				}
+				int t = x;
+				x = y;
+				y = t;
+			}
+			x += s * rx;
+			y += s * ry;
+			d >>>= 2;
+		}
+		return pack(x, y);
+	}
+
+	/**
+	 * Moore curve (closed Hilbert curve) starting at the bottom middle cell {@code (n/2, n-1)} and
+	 * ending next to it at {@code (n/2-1, n-1)}. The square is traversed by four Hilbert curves,
+	 * counter-clockwise starting with the bottom-right quadrant.
+	 *
+	 * @param n
+	 *            side length, a power of 2
+	 * @param d
+	 *            curve index
+	 * @return packed position
+	 */
+	public static long moore(int n, long d) {
+		if (n == 1) {
+			return pack(0, 0);
+		}
+		int h = n / 2;
+		long quadrantSize = (long) h * h;
+		int quadrant = (int) (d / quadrantSize);
+		long p = hilbert(h, d % quadrantSize);
+		int hx = col(p), hy = row(p);
+		int x, y;
+		if (quadrant < 2) {
+			// bottom-left, then top-left quadrant, from bottom-right to top-right corner
+			x = h - 1 - hy;
+			y = h - 1 - hx + (quadrant == 0 ? h : 0);
+		}
+		else {
+			// top-right, then bottom-right quadrant, from top-left to bottom-left corner
+			x = h + hy;
+			y = hx + (quadrant == 3 ? h : 0);
+		}
+		// mirror horizontally such that the curve starts at (n/2, n-1)
+		return pack(n - 1 - x, y);
+	}
+
+	/**
+	 * Peano curve starting at the bottom-left and ending at the top-right corner.
+	 *
+	 * @param n
+	 *            side length, a power of 3
+	 * @param d
+	 *            curve index
+	 * @return packed position
+	 */
+	public static long peano(int n, long d) {
+		// the ternary digits of d, most significant first, alternately give the x and y digits
+		int x = 0, y = 0, sumX = 0, sumY = 0;
+		for (long power = (long) n * n / 9; power > 0; power /= 9) {
+			int digitPair = (int) (d / power);
+			d %= power;
+			int a = digitPair / 3, b = digitPair % 3;
+			x = 3 * x + (sumY % 2 == 0 ? a : 2 - a);
+			sumX += a;
+			y = 3 * y + (sumX % 2 == 0 ? b : 2 - b);
+			sumY += b;
+		}
+		return pack(x, n - 1 - y);
+	}
+
+	/**
+	 * Computes the order in which the given curve over a square of side {@code n} visits the cells of a
+	 * grid with the given size placed at the top-left corner of the square. Curve positions outside of
+	 * the grid are skipped.
+	 *
+	 * @param curve
+	 *                  the curve
+	 * @param n
+	 *                  side length of the square, at least {@code max(numCols, numRows)}
+	 * @param numCols
+	 *                  number of grid columns
+	 * @param numRows
+	 *                  number of grid rows
+	 * @param pool
+	 *                  pool computing chunks of the curve in parallel or {@code null}
+	 * @return the grid cells (numbered row by row) in curve order
+	 */
+	public static int[] cells(Curve curve, int n, int numCols, int numRows, ForkJoinPool pool) {
+		if (n < numCols || n < numRows) {
+			throw new IllegalArgumentException(
+					String.format("Curve square %d x %d too small for grid %d x %d", n, n, numCols, numRows));
+		}
+		long length = (long) n * n;
+		int numChunks = (int) ((length + CHUNK_SIZE - 1) / CHUNK_SIZE);
+		int[][] parts = new int[numChunks][];
+		ParallelLoop.RangeAction action = (first, last) -> {
+			int[] part = new int[CHUNK_SIZE];
+			for (int chunk = first; chunk < last; ++chunk) {
+				long end = Math.min(length, (long) (chunk + 1) * CHUNK_SIZE);
+				int size = 0;
+				for (long d = (long) chunk * CHUNK_SIZE; d < end; ++d) {
+					long p = curve.position(n, d);
+					int col = col(p), row = row(p);
+					if (col < numCols && row < numRows) {
+						part[size++] = row * numCols + col;
+					}
+				}
+				parts[chunk] = Arrays.copyOf(part, size);
+			}
+		};
+		if (pool != null) {
+			ParallelLoop.forRange(pool, 0, numChunks, 1, action);
+		}
+		else {
+			action.run(0, numChunks);
+		}
+		int[] cells = new int[numCols * numRows];
+		int i = 0;
+		for (int chunk = 0; chunk < numChunks; ++chunk) {
+			System.arraycopy(parts[chunk], 0, cells, i, parts[chunk].length);
+			i += parts[chunk].length;
+		}
+		return cells;
+	}
+
+	/**
+	 * @param position
+	 *                   packed position
+	 * @return column of the position
+	 */
+	public static int col(long position) {
+		return (int) (position >>> 32);
+	}
+
+	/**
+	 * @param position
+	 *                   packed position
+	 * @return row of the position
+	 */
+	public static int row(long position) {
+		return (int) position;
+	}
+
+	private static long pack(int col, int row) {
+		return (long) col << 32 | row;
+	}
+}
@@ -0,0 +1,262 @@
+package de.amr.maze.alg.core;
+
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Supplier;
+import java.util.function.ToLongFunction;
+import java.util.function.UnaryOperator;
+
+/**
+ * Bounded, thread-safe cache for immutable data that depends only on the grid size and topology,
+ * like the edge list of the full grid or the cell order of a space-filling curve.
+ * <p>
+ * Entries are identified by a kind (a name chosen by the generator) and the grid's column count, row
+ * count and number of directions. The estimated memory of the entries is accounted, and when the
+ * capacity is exceeded the least recently used entries are evicted. An artifact that is larger than
+ * the whole capacity is computed but not stored.
+ * <p>
+ * Cached artifacts are shared between generators and threads and must not be modified. Users that
+ * need to modify the edge list (e.g. shuffle it) get their own copy by
+ * {@link #getModifiableEdges(GridNeighborhood)}.
+ *
+ * @author Armin Reichert
+ */
+public final class TopologyCache {
+
+	/** Capacity of the shared cache in bytes. */
+	public static final long SHARED_CAPACITY_BYTES = 64L << 20;
+
+	private static final TopologyCache SHARED = new TopologyCache(SHARED_CAPACITY_BYTES);
+
+	/**
+	 * @return the cache used by the generators unless another cache is set
+	 */
+	public static TopologyCache shared() {
+		return SHARED;
+	}
+
+	/**
+	 * @param cells
+	 *                int array
+	 * @return estimated memory of the array in bytes
+	 */
+	public static long memoryBytes(int[] cells) {
+		return 16 + 4L * cells.length;
+	}
+
+	private static final class Key {
+
+		final String kind;
+		final int numCols;
+		final int numRows;
+		final int dirCount;
+
+		Key(String kind, int numCols, int numRows, int dirCount) {
+			this.kind = kind;
+			this.numCols = numCols;
+			this.numRows = numRows;
+			this.dirCount = dirCount;
+		}
+
+		@Override
+		public boolean equals(Object obj) {
+			if (this == obj) {
+				return true;
+			}
+			if (!(obj instanceof Key)) {
+				return false;
+			}
+			Key other = (Key) obj;
+			return kind.equals(other.kind) && numCols == other.numCols && numRows == other.numRows
+					&& dirCount == other.dirCount;
+		}
+
+		@Override
+		public int hashCode() {
+			return Objects.hash(kind, numCols, numRows, dirCount);
+		}
+	}
+
+	private static final class Entry {
+
+		final Object artifact;
+		final long memoryBytes;
+
+		Entry(Object artifact, long memoryBytes) {
+			this.artifact = artifact;
+			this.memoryBytes = memoryBytes;
+		}
+	}
+
+	private final Map<Key, Entry> entries = new LinkedHashMap<>(16, 0.75f, true); // access order
+	private long capacityBytes;
+	private long memoryBytes;
+	private long hits;
+	private long misses;
+
+	/**
+	 * Creates an empty cache.
+	 *
+	 * @param capacityBytes
+	 *                        maximum estimated memory of the cached artifacts
+	 */
+	public TopologyCache(long capacityBytes) {
+		setCapacityBytes(capacityBytes);
+	}
+
+	/**
+	 * Returns the cached artifact of the given kind for the given grid, computing and storing it on
+	 * first access.
+	 *
+	 * @param <T>
+	 *                      artifact type
+	 * @param kind
+	 *                      kind of the artifact
+	 * @param neighborhood
+	 *                      neighborhood defining grid size and topology
+	 * @param factory
+	 *                      computes the artifact if it is not cached
+	 * @param memoryBytes
+	 *                      estimates the memory of an artifact
+	 * @return the (shared, immutable) artifact
+	 */
+	public <T> T get(String kind, GridNeighborhood neighborhood, Supplier<T> factory,
+			ToLongFunction<T> memoryBytes) {
+		return get(kind, neighborhood, factory, memoryBytes, UnaryOperator.identity());
+	}
+
+	/**
+	 * Like {@link #get(String, GridNeighborhood, Supplier, ToLongFunction)}, but copies the artifact if
+	 * it is shared, i.e. stored in the cache. An artifact that is too large to be stored is returned as
+	 * computed, without copying it.
+	 */
+	@SuppressWarnings("unchecked")
+	private <T> T get(String kind, GridNeighborhood neighborhood, Supplier<T> factory,
+			ToLongFunction<T> memoryBytes, UnaryOperator<T> copyShared) {
+		Key key = new Key(kind, neighborhood.numCols(), neighborhood.numRows(), neighborhood.dirCount());
+		T shared;
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				++hits;
+				shared = (T) entry.artifact;
+			}
+			else {
+				++misses;
+				shared = null;
+			}
+		}
+		if (shared != null) {
+			return copyShared.apply(shared);
+		}
+		// compute outside the lock, concurrent misses of the same key may compute the artifact twice
+		T artifact = factory.get();
+		long size = memoryBytes.applyAsLong(artifact);
+		synchronized (this) {
+			Entry entry = entries.get(key);
+			if (entry != null) {
+				shared = (T) entry.artifact;
+			}
+			else if (size <= capacityBytes) {
+				entries.put(key, new Entry(artifact, size));
+				this.memoryBytes += size;
+				evict();
+				shared = artifact;
+			}
+		}
+		return shared != null ? copyShared.apply(shared) : artifact;
+	}
+
+	/**
+	 * Returns the cached cell sequence of the given kind for the given grid.
+	 *
+	 * @param kind
+	 *                       kind of the artifact
+	 * @param neighborhood
+	 *                       neighborhood defining grid size and topology
+	 * @param factory
+	 *                       computes the cell sequence if it is not cached
+	 * @return the (shared, immutable) cell sequence
+	 */
+	public int[] getCells(String kind, GridNeighborhood neighborhood, Supplier<int[]> factory) {
+		return get(kind, neighborhood, factory, TopologyCache::memoryBytes);
+	}
+
+	/**
+	 * @param neighborhood
+	 *                       neighborhood defining grid size and topology
+	 * @return the (shared, immutable) codes of all edges of the full grid, see
+	 *         {@link GridNeighborhood#edges()}
+	 */
+	public int[] getEdges(GridNeighborhood neighborhood) {
+		return getCells("edges", neighborhood, neighborhood::edges);
+	}
+
+	/**
+	 * Returns the codes of all edges of the full grid in an array owned by the caller, which may modify
+	 * it. The array is only copied if it is stored in the cache; edge arrays too large to be cached are
+	 * computed and returned without copying.
+	 *
+	 * @param neighborhood
+	 *                       neighborhood defining grid size and topology
+	 * @return modifiable codes of all edges of the full grid, see {@link GridNeighborhood#edges()}
+	 */
+	public int[] getModifiableEdges(GridNeighborhood neighborhood) {
+		return get("edges", neighborhood, neighborhood::edges, TopologyCache::memoryBytes, int[]::clone);
+	}
+
+	public synchronized long getCapacityBytes() {
+		return capacityBytes;
+	}
+
+	/**
+	 * Sets the capacity and evicts entries if needed.
+	 *
+	 * @param capacityBytes
+	 *                        maximum estimated memory of the cached artifacts
+	 */
+	public synchronized void setCapacityBytes(long capacityBytes) {
+		if (capacityBytes < 0) {
+			throw new IllegalArgumentException("Capacity must not be negative: " + capacityBytes);
+		}
+		this.capacityBytes = capacityBytes;
+		evict();
+	}
+
+	/**
+	 * @return estimated memory of the cached artifacts in bytes
+	 */
+	public synchronized long memoryBytes() {
+		return memoryBytes;
+	}
+
+	public synchronized int size() {
+		return entries.size();
+	}
+
+	public synchronized long hits() {
+		return hits;
+	}
+
+	public synchronized long misses() {
+		return misses;
+	}
+
+	/**
+	 * Removes all entries and resets the statistics.
+	 */
+	public synchronized void clear() {
+		entries.clear();
+		memoryBytes = hits = misses = 0;
+	}
+
+	private void evict() {
+		Iterator<Entry> eldestFirst = entries.values().iterator();
+		while (memoryBytes > capacityBytes && eldestFirst.hasNext()) {
+			memoryBytes -= eldestFirst.next().memoryBytes;
+			eldestFirst.remove();
+		}
+	}
+}
@@ -0,0 +1,133 @@
+package de.amr.maze.alg.core;
+
+import java.util.Arrays;
+
+/**
+ * Disjoint-set forest ("union-find") over the elements {@code 0, ..., n - 1} stored in int arrays.
+ * <p>
+ * Uses path halving and union by size. Initially (and after {@link #clear()}), each element is in
+ * its own set. Clearing takes constant time: each element carries the number of the generation in
+ * which its entries have been written, entries from older generations are treated as singletons.
+ *
+ * @author Armin Reichert
+ */
+public final class UnionFind {
+
+	private final int[] parent;
+	private final int[] size;
+	private final int[] generation;
+	private int currentGeneration;
+	private int numSets;
+
+	/**
+	 * Creates a partition of the elements {@code 0, ..., n - 1} into singleton sets.
+	 *
+	 * @param n
+	 *            number of elements
+	 */
+	public UnionFind(int n) {
+		parent = new int[n];
+		size = new int[n];
+		generation = new int[n];
+		currentGeneration = 1;
+		numSets = n;
+	}
+
+	/**
+	 * Resets the partition to singleton sets in constant time.
+	 */
+	public void clear() {
+		if (++currentGeneration == 0) {
+			Arrays.fill(generation, 0);
+			currentGeneration = 1;
+		}
+		numSets = parent.length;
+	}
+
+	/**
+	 * @return number of elements
+	 */
+	public int numElements() {
+		return parent.length;
+	}
+
+	/**
+	 * @return number of disjoint sets
+	 */
+	public int size() {
+		return numSets;
+	}
+
+	/**
+	 * @param x
+	 *            an element
+	 * @return the representative element of the set containing {@code x}
+	 */
+	public int find(int x) {
+		if (generation[x] != currentGeneration) {
+			return x;
+		}
+		while (parent[x] != x) {
+			int grandParent = parent[parent[x]];
+			parent[x] = grandParent;
+			x = grandParent;
+		}
+		return x;
+	}
+
+	/**
+	 * @param x
+	 *            an element
+	 * @param y
+	 *            an element
+	 * @return {@code true} if both elements are in the same set
+	 */
+	public boolean sameSet(int x, int y) {
+		return find(x) == find(y);
+	}
+
+	/**
+	 * @param x
+	 *            an element
+	 * @return number of elements in the set containing {@code x}
+	 */
+	public int setSize(int x) {
+		int root = find(x);
+		return generation[root] == currentGeneration ? size[root] : 1;
+	}
+
+	/**
+	 * Merges the sets containing the given elements.
+	 *
+	 * @param x
+	 *            an element
+	 * @param y
+	 *            an element
+	 * @return {@code true} if the elements were in different sets before
+	 */
+	public boolean union(int x, int y) {
+		int rootX = find(x), rootY = find(y);
+		if (rootX == rootY) {
+			return false;
+		}
+		touch(rootX);
+		touch(rootY);
+		if (size[rootX] < size[rootY]) {
+			int tmp = rootX;
+			rootX = rootY;
+			rootY = tmp;
+		}
+		parent[rootY] = rootX;
+		size[rootX] += size[rootY];
+		--numSets;
+		return true;
+	}
+
+	private void touch(int root) {
+		if (generation[root] != currentGeneration) {
+			generation[root] = currentGeneration;
+			parent[root] = root;
+			size[root] = 1;
+		}
+	}
+}
@@ -1,61 +1,114 @@
 package de.amr.maze.alg.mst;
 
-import static de.amr.datastruct.StreamUtils.permute;
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
 
-import java.util.Optional;
-import java.util.stream.Stream;
-
-import de.amr.datastruct.Partition;
-import de.amr.graph.core.api.Edge;
 import de.amr.graph.core.api.TraversalState;
-import de.amr.graph.core.api.UndirectedEdge;
 import de.amr.graph.grid.api.GridGraph2D;
 import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.core.UnionFind;
 
 /**
  * Maze generator derived from Boruvka's minimum spanning tree algorithm.
- * 
+ *
  * @author Armin Reichert
- * 
+ *
  * @see <a href="http://iss.ices.utexas.edu/?p=projects/galois/benchmarks/mst">Boruvka's
  *      Algorithm</a>
  */
 public class BoruvkaMST extends MazeGenerator {
 
-	private Partition<Integer> forest;
+	private UnionFind forest;
+	private int[] trees;
+	private int[] treeStart;
+	private int[] treeCells;
 
 	public BoruvkaMST(GridGraph2D<TraversalState, Integer> grid) {
 		super(grid);
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
-		forest = new Partition<>();
-		grid.vertices().forEach(forest::makeSet);
+	protected void generateMaze(int x, int y) {
+		int n = grid.numVertices();
+		forest = new UnionFind(n);
+		trees = new int[n];
+		treeStart = new int[n + 1];
+		treeCells = new int[n];
 		while (forest.size() > 1) {
-			permute(forest.sets()).map(this::findCombiningEdge).filter(Optional::isPresent).map(Optional::get)
-					.forEach(this::combineTrees);
+			int numTrees = collectTrees();
+			shuffle(trees, 0, numTrees);
+			for (int i = 0; i < numTrees; ++i) {
+				combineTree(trees[i]);
+			}
 		}
 	}
 
-	private void combineTrees(Edge edge) {
-		int u = edge.either(), v = edge.other();
-		if (forest.find(u) != forest.find(v)) {
-			grid.addEdge(u, v);
-			grid.set(u, COMPLETED);
-			grid.set(v, COMPLETED);
-			forest.union(u, v);
+	/**
+	 * Groups the cells by the tree they belong to. The cells of the tree with root {@code r} are stored
+	 * in {@code treeCells[treeStart[r]], ..., treeCells[treeStart[r + 1] - 1]}.
+	 *
+	 * @return number of trees, the roots are stored in {@code trees}
+	 */
+	private int collectTrees() {
+		int n = grid.numVertices(), numTrees = 0;
+		int[] next = trees; // the roots are written after next[] has been used
+		for (int cell = 0; cell < n; ++cell) {
+			next[cell] = 0;
+		}
+		for (int cell = 0; cell < n; ++cell) {
+			++next[forest.find(cell)];
+		}
+		for (int cell = 0, start = 0; cell < n; ++cell) {
+			treeStart[cell] = start;
+			start += next[cell];
+			next[cell] = treeStart[cell];
+		}
+		treeStart[n] = n;
+		for (int cell = 0; cell < n; ++cell) {
+			treeCells[next[forest.find(cell)]++] = cell;
 		}
+		for (int cell = 0; cell < n; ++cell) {
+			if (forest.find(cell) == cell) {
+				trees[numTrees++] = cell;
+			}
+		}
+		return numTrees;
 	}
 
-	private Optional<Edge> findCombiningEdge(Partition<Integer>.Set tree) {
-		return permute(tree.elements()).flatMap(this::inventCombiningEdges).findFirst();
+	/**
+	 * Connects the tree with the given root to some other tree. The tree cell and the neighbor cell in
+	 * the other tree are chosen at random.
+	 */
+	private void combineTree(int root) {
+		int from = treeStart[root], to = treeStart[root + 1];
+		// visit the tree cells in random order, each step of the shuffle selects the next cell
+		for (int i = from; i < to; ++i) {
+			int j = i + rnd.nextInt(to - i);
+			int cell = treeCells[j];
+			treeCells[j] = treeCells[i];
+			treeCells[i] = cell;
+			int dirs = combiningDirs(cell);
+			if (dirs != 0) {
+				int neighbor = neighborhood.neighbor(cell, randomDir(dirs));
+				forest.union(cell, neighbor);
+				grid.addEdge(cell, neighbor);
+				showCellState(cell, COMPLETED);
+				showCellState(neighbor, COMPLETED);
+				return;
+			}
+		}
 	}
 
-	private Stream<Edge> inventCombiningEdges(int cell) {
-		// invent edges combining different subtrees
-		return permute(grid.neighbors(cell).filter(neighbor -> forest.find(cell) != forest.find(neighbor))
-				.map(neighbor -> new UndirectedEdge(cell, neighbor)));
+	/**
+	 * @return bit mask of the directions towards neighbors in a different tree
+	 */
+	private int combiningDirs(int cell) {
+		int root = forest.find(cell), result = 0;
+		for (int dirs = neighborhood.validDirs(cell); dirs != 0; dirs &= dirs - 1) {
+			int dir = Integer.numberOfTrailingZeros(dirs);
+			if (forest.find(neighborhood.neighbor(cell, dir)) != root) {
+				result |= 1 << dir;
+			}
+		}
+		return result;
 	}
-}
\ No newline at end of file
+}
@@ -1,17 +1,17 @@
 package de.amr.maze.alg.mst;
 
-import static de.amr.datastruct.StreamUtils.permute;
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
-import static de.amr.graph.core.api.TraversalState.UNVISITED;
-import static de.amr.graph.grid.impl.GridFactory.fullGrid;
 
-import de.amr.datastruct.Partition;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
 import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.core.UnionFind;
 
 /**
  * Maze generator derived from Kruskal's minimum spanning-tree algorithm.
+ * <p>
+ * The edges of the full grid are not created as objects but enumerated by their codes (see
+ * {@link de.amr.maze.alg.core.GridNeighborhood#edges()}), which are processed in random order.
  * 
  * @author Armin Reichert
  * 
@@ -26,17 +26,18 @@ public class KruskalMST extends MazeGenerator {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
-		Partition<Integer> forest = new Partition<>();
-		//@formatter:off
-		permute( fullGrid(grid.numCols(), grid.numRows(), grid.getTopology(), UNVISITED, 0).edges() )
-			.filter(edge -> forest.union(edge.either(), edge.other()))
-			.forEach(edge -> {
-				int u = edge.either(), v = edge.other();
+	protected void generateMaze(int x, int y) {
+		int[] edges = getTopologyCache().getModifiableEdges(neighborhood);
+		shuffle(edges, 0, edges.length);
+		UnionFind forest = new UnionFind(grid.numVertices());
+		for (int i = 0; i < edges.length && forest.size() > 1; ++i) {
+			int u = neighborhood.edgeCell(edges[i]);
+			int v = neighborhood.neighbor(u, neighborhood.edgeDir(edges[i]));
+			if (forest.union(u, v)) {
 				grid.addEdge(u, v);
-				grid.set(u, COMPLETED);
-				grid.set(v, COMPLETED);
-			});
-		//@formatter:on
+				showCellState(u, COMPLETED);
+				showCellState(v, COMPLETED);
+			}
+		}
 	}
-}
\ No newline at end of file
+}
@@ -0,0 +1,178 @@
+package de.amr.maze.alg.mst;
+
+import static de.amr.graph.core.api.TraversalState.COMPLETED;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+import de.amr.graph.core.api.TraversalState;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.ConcurrentUnionFind;
+import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.core.MazeRandom;
+import de.amr.maze.alg.core.ParallelLoop;
+
+/**
+ * Multi-core maze generator derived from Boruvka's minimum spanning tree algorithm with random edge
+ * weights.
+ * <p>
+ * Each round, the minimum weight edge leaving each component is determined in parallel (by an atomic
+ * minimum per component), these edges are added to the maze and the components are merged. Then the
+ * components are contracted: each cell is relabeled with the root of its component and the edges
+ * inside a component are removed from the edge list. All data is kept in flat arrays, the edges as
+ * int codes (see {@link de.amr.maze.alg.core.GridNeighborhood#edges()}). The random weight of an
+ * edge is a hash of the seed and the edge code, ties are broken by the edge code.
+ * <p>
+ * Because the weights define a strict order of the edges, the maze is the unique minimum spanning
+ * tree and does not depend on the number of threads.
+ *
+ * @author Armin Reichert
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Bor%C5%AFvka%27s_algorithm">Wikipedia: Boruvka's
+ *      Algorithm</a>
+ */
+public class ParallelBoruvkaMST extends MazeGenerator {
+
+	private static final int GRAIN = 1 << 12;
+	private static final long NO_EDGE = Long.MAX_VALUE;
+
+	private final ForkJoinPool pool;
+	private long seed;
+
+	public ParallelBoruvkaMST(GridGraph2D<TraversalState, Integer> grid) {
+		this(grid, ForkJoinPool.commonPool());
+	}
+
+	public ParallelBoruvkaMST(GridGraph2D<TraversalState, Integer> grid, ForkJoinPool pool) {
+		super(grid);
+		this.pool = pool;
+	}
+
+	@Override
+	protected void generateMaze(int x, int y) {
+		int n = grid.numVertices();
+		seed = rnd.nextLong();
+		int[] edges = getTopologyCache().getModifiableEdges(neighborhood);
+		int numEdges = edges.length;
+		int[] component = new int[n];
+		int[] components = new int[n];
+		int[] selected = new int[n];
+		for (int cell = 0; cell < n; ++cell) {
+			component[cell] = cell;
+			components[cell] = cell;
+		}
+		int numComponents = n;
+		AtomicLongArray minEdge = new AtomicLongArray(n);
+		ConcurrentUnionFind forest = new ConcurrentUnionFind(n);
+
+		while (numEdges > 0) {
+			int m = numEdges, k = numComponents;
+
+			// find minimum outgoing edge of each component
+			ParallelLoop.forRange(pool, 0, k, GRAIN, (from, to) -> {
+				for (int i = from; i < to; ++i) {
+					minEdge.set(components[i], NO_EDGE);
+				}
+			});
+			ParallelLoop.forRange(pool, 0, m, GRAIN, (from, to) -> {
+				for (int i = from; i < to; ++i) {
+					int u = neighborhood.edgeCell(edges[i]);
+					int v = neighborhood.neighbor(u, neighborhood.edgeDir(edges[i]));
+					long key = key(edges[i]);
+					updateMin(minEdge, component[u], key);
+					updateMin(minEdge, component[v], key);
+				}
+			});
+
+			// merge components along their minimum edges, an edge selected by both its components is taken
+			// by the component with the smaller label
+			ParallelLoop.forRange(pool, 0, k, GRAIN, (from, to) -> {
+				for (int i = from; i < to; ++i) {
+					int c = components[i];
+					selected[c] = -1;
+					long key = minEdge.get(c);
+					if (key == NO_EDGE) {
+						continue;
+					}
+					int edge = (int) (key & Integer.MAX_VALUE);
+					int u = neighborhood.edgeCell(edge), v = neighborhood.neighbor(u, neighborhood.edgeDir(edge));
+					int other = component[u] == c ? component[v] : component[u];
+					if (minEdge.get(other) == key && other < c) {
+						continue;
+					}
+					forest.union(u, v);
+					selected[c] = edge;
+				}
+			});
+			for (int i = 0; i < k; ++i) {
+				int edge = selected[components[i]];
+				if (edge != -1) {
+					int u = neighborhood.edgeCell(edge), v = neighborhood.neighbor(u, neighborhood.edgeDir(edge));
+					grid.addEdge(u, v);
+					showCellState(u, COMPLETED);
+					showCellState(v, COMPLETED);
+				}
+			}
+
+			// contract components
+			ParallelLoop.forRange(pool, 0, n, GRAIN, (from, to) -> {
+				for (int cell = from; cell < to; ++cell) {
+					component[cell] = forest.find(cell);
+				}
+			});
+			numEdges = compact(edges, m, edge -> {
+				int u = neighborhood.edgeCell(edge), v = neighborhood.neighbor(u, neighborhood.edgeDir(edge));
+				return component[u] != component[v];
+			});
+			numComponents = compact(components, k, c -> component[c] == c);
+		}
+	}
+
+	/**
+	 * @return random weight of the edge in the upper bits, edge code in the lower 31 bits
+	 */
+	private long key(int edge) {
+		return (MazeRandom.hash(seed, edge) >>> 32) << 31 | edge;
+	}
+
+	private static void updateMin(AtomicLongArray minEdge, int component, long key) {
+		long current = minEdge.get(component);
+		while (key < current && !minEdge.compareAndSet(component, current, key)) {
+			current = minEdge.get(component);
+		}
+	}
+
+	@FunctionalInterface
+	private interface IntCondition {
+
+		boolean test(int value);
+	}
+
+	/**
+	 * Removes the elements not satisfying the condition from the first {@code size} array elements,
+	 * keeping the order of the remaining elements.
+	 *
+	 * @return number of remaining elements
+	 */
+	private int compact(int[] a, int size, IntCondition condition) {
+		int numChunks = (size + GRAIN - 1) / GRAIN;
+		int[] kept = new int[numChunks];
+		ParallelLoop.forRange(pool, 0, numChunks, 1, (first, last) -> {
+			for (int chunk = first; chunk < last; ++chunk) {
+				int start = chunk * GRAIN, end = Math.min(size, start + GRAIN), count = 0;
+				for (int i = start; i < end; ++i) {
+					if (condition.test(a[i])) {
+						a[start + count++] = a[i];
+					}
+				}
+				kept[chunk] = count;
+			}
+		});
+		int end = 0;
+		for (int chunk = 0; chunk < numChunks; ++chunk) {
+			System.arraycopy(a, chunk * GRAIN, a, end, kept[chunk]);
+			end += kept[chunk];
+		}
+		return end;
+	}
+}
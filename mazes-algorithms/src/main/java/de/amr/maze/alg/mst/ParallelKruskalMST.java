@@ -0,0 +1,169 @@
+package de.amr.maze.alg.mst;
+
+import static de.amr.graph.core.api.TraversalState.COMPLETED;
+
+import java.util.concurrent.ForkJoinPool;
+
+import de.amr.graph.core.api.Graph;
+import de.amr.graph.core.api.TraversalState;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.ConcurrentUnionFind;
+import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.core.MazeRandom;
+import de.amr.maze.alg.core.ParallelLoop;
+
+/**
+ * Multi-core maze generator derived from the "Filter-Kruskal" minimum spanning tree algorithm.
+ * <p>
+ * Each edge gets a random weight, and the edges are distributed in parallel into buckets of
+ * increasing weight. The buckets are processed in order: the edges of a bucket that connect cells
+ * which are already connected by the edges of the previous buckets are filtered out in parallel
+ * using a lock-free {@link ConcurrentUnionFind}, the remaining edges are shuffled and added like in
+ * Kruskal's algorithm. Because the bucket of each edge is chosen uniformly at random and the edges
+ * inside a bucket are shuffled, the edges are processed in uniformly random order. So the created
+ * mazes have the same distribution as the ones created by {@link KruskalMST}.
+ * <p>
+ * The edges are kept as int codes in a single array, no edge objects or full grid are created. The
+ * created maze only depends on the random number generator of this generator, not on the number of
+ * threads.
+ *
+ * @author Armin Reichert
+ *
+ * @see <a href="https://algo2.iti.kit.edu/documents/fkruskal.pdf">Osipov, Sanders, Singler: The
+ *      Filter-Kruskal Minimum Spanning Tree Algorithm</a>
+ */
+public class ParallelKruskalMST extends MazeGenerator {
+
+	private static final int BUCKET_SIZE = 1 << 15;
+	private static final int CHUNK_CELLS = 1 << 16;
+	private static final int FILTER_CHUNK_SIZE = 1 << 12;
+
+	private final ForkJoinPool pool;
+	private long seed;
+	private int bucketBits;
+
+	public ParallelKruskalMST(GridGraph2D<TraversalState, Integer> grid) {
+		this(grid, ForkJoinPool.commonPool());
+	}
+
+	public ParallelKruskalMST(GridGraph2D<TraversalState, Integer> grid, ForkJoinPool pool) {
+		super(grid);
+		this.pool = pool;
+	}
+
+	@Override
+	protected void generateMaze(int x, int y) {
+		int n = grid.numVertices(), half = neighborhood.dirCount() / 2;
+		if ((long) n * half > Integer.MAX_VALUE) {
+			throw new IllegalStateException(
+					String.format("Too many edges for int codes: %d x %d", grid.numCols(), grid.numRows()));
+		}
+		seed = rnd.nextLong();
+		int numBuckets = Integer.highestOneBit((int) Math.max(1, neighborhood.numEdges() / BUCKET_SIZE));
+		bucketBits = Integer.numberOfTrailingZeros(numBuckets);
+		int numChunks = (n + CHUNK_CELLS - 1) / CHUNK_CELLS;
+
+		// count edges per (chunk, bucket), then compute where each chunk writes into each bucket
+		int[] offsets = new int[numChunks * numBuckets];
+		ParallelLoop.forRange(pool, 0, numChunks, 1, (first, last) -> {
+			for (int chunk = first; chunk < last; ++chunk) {
+				distributeEdges(chunk, numBuckets, offsets, null);
+			}
+		});
+		int[] bucketStart = new int[numBuckets + 1];
+		int total = 0;
+		for (int bucket = 0; bucket < numBuckets; ++bucket) {
+			bucketStart[bucket] = total;
+			for (int chunk = 0; chunk < numChunks; ++chunk) {
+				int count = offsets[chunk * numBuckets + bucket];
+				offsets[chunk * numBuckets + bucket] = total;
+				total += count;
+			}
+		}
+		bucketStart[numBuckets] = total;
+		int[] edges = new int[total];
+		ParallelLoop.forRange(pool, 0, numChunks, 1, (first, last) -> {
+			for (int chunk = first; chunk < last; ++chunk) {
+				distributeEdges(chunk, numBuckets, offsets, edges);
+			}
+		});
+
+		// process buckets in order of increasing weight
+		ConcurrentUnionFind forest = new ConcurrentUnionFind(n);
+		int numTreeEdges = 0;
+		for (int bucket = 0; bucket < numBuckets && numTreeEdges < n - 1; ++bucket) {
+			int from = bucketStart[bucket], to = bucketStart[bucket + 1];
+			if (numTreeEdges > 0) {
+				to = filter(edges, from, to, forest);
+			}
+			shuffle(edges, from, to);
+			for (int i = from; i < to && numTreeEdges < n - 1; ++i) {
+				int u = neighborhood.edgeCell(edges[i]);
+				int v = neighborhood.neighbor(u, neighborhood.edgeDir(edges[i]));
+				if (forest.union(u, v)) {
+					grid.addEdge(u, v);
+					showCellState(u, COMPLETED);
+					showCellState(v, COMPLETED);
+					++numTreeEdges;
+				}
+			}
+		}
+	}
+
+	private int bucket(int edge) {
+		return bucketBits == 0 ? 0 : (int) (MazeRandom.hash(seed, edge) >>> (Long.SIZE - bucketBits));
+	}
+
+	/**
+	 * Enumerates the edges starting in the cells of the given chunk. If {@code edges} is {@code null},
+	 * the edges are counted per bucket, otherwise they are stored at the offsets of their bucket.
+	 */
+	private void distributeEdges(int chunk, int numBuckets, int[] offsets, int[] edges) {
+		int half = neighborhood.dirCount() / 2, base = chunk * numBuckets;
+		int end = Math.min(grid.numVertices(), (chunk + 1) * CHUNK_CELLS);
+		for (int cell = chunk * CHUNK_CELLS; cell < end; ++cell) {
+			for (int dir = 0; dir < half; ++dir) {
+				if (neighborhood.neighbor(cell, dir) != Graph.NO_VERTEX) {
+					int edge = cell * half + dir;
+					if (edges == null) {
+						++offsets[base + bucket(edge)];
+					}
+					else {
+						edges[offsets[base + bucket(edge)]++] = edge;
+					}
+				}
+			}
+		}
+	}
+
+	/**
+	 * Removes the edges between already connected cells from the given range, keeping the order of the
+	 * other edges.
+	 *
+	 * @return end index of the remaining edges
+	 */
+	private int filter(int[] edges, int from, int to, ConcurrentUnionFind forest) {
+		int numChunks = (to - from + FILTER_CHUNK_SIZE - 1) / FILTER_CHUNK_SIZE;
+		int[] kept = new int[numChunks];
+		ParallelLoop.forRange(pool, 0, numChunks, 1, (first, last) -> {
+			for (int chunk = first; chunk < last; ++chunk) {
+				int start = from + chunk * FILTER_CHUNK_SIZE, end = Math.min(to, start + FILTER_CHUNK_SIZE);
+				int count = 0;
+				for (int i = start; i < end; ++i) {
+					int u = neighborhood.edgeCell(edges[i]);
+					int v = neighborhood.neighbor(u, neighborhood.edgeDir(edges[i]));
+					if (!forest.sameSet(u, v)) {
+						edges[start + count++] = edges[i];
+					}
+				}
+				kept[chunk] = count;
+			}
+		});
+		int end = from;
+		for (int chunk = 0; chunk < numChunks; ++chunk) {
+			System.arraycopy(edges, from + chunk * FILTER_CHUNK_SIZE, edges, end, kept[chunk]);
+			end += kept[chunk];
+		}
+		return end;
+	}
+}
@@ -1,49 +1,88 @@
 package de.amr.maze.alg.mst;
 
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
-
-import java.util.PriorityQueue;
+import static de.amr.graph.core.api.TraversalState.VISITED;
 
 import de.amr.graph.core.api.TraversalState;
-import de.amr.graph.core.api.WeightedEdge;
 import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.IndexedMinHeap;
+import de.amr.maze.alg.core.IndexedPriorityQueue;
 import de.amr.maze.alg.core.MazeGenerator;
 
 /**
  * Maze generator based on Prim's minimum spanning tree algorithm with random edge weights.
- * 
+ * <p>
+ * The cells outside of the tree that have a tree neighbor ("frontier" cells) are stored in an
+ * indexed heap, keyed by the minimum weight of their edges into the tree. When a cell is added to
+ * the tree, the weights of its edges to the non-tree neighbors are drawn and the keys of these
+ * neighbors are decreased if the weight is smaller. So only O(V) memory and no edge objects are
+ * needed.
+ * <p>
+ * Subclasses can use another frontier queue and another distribution of the edge weights, see
+ * {@link PrimMSTBucketQueue}.
+ *
  * @author Armin Reichert
- * 
+ *
  * @see <a href="http://weblog.jamisbuck.org/2011/1/10/maze-generation-prim-s-algorithm.html">Maze
  *      Generation: Prim's Algorithm</a>
  * @see <a href="https://en.wikipedia.org/wiki/Prim%27s_algorithm">Wikipedia: Prim's Algorithm</a>
  */
 public class PrimMST extends MazeGenerator {
 
-	private PriorityQueue<WeightedEdge<Integer>> cut;
+	private IndexedPriorityQueue frontier;
+	private byte[] treeDir; // direction from frontier cell to its cheapest tree neighbor
 
 	public PrimMST(GridGraph2D<TraversalState, Integer> grid) {
 		super(grid);
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
-		cut = new PriorityQueue<>();
+	protected void generateMaze(int x, int y) {
+		frontier = createFrontier(grid.numVertices());
+		treeDir = new byte[grid.numVertices()];
 		expand(grid.cell(x, y));
-		while (!cut.isEmpty()) {
-			WeightedEdge<Integer> minEdge = cut.poll();
-			int u = minEdge.either(), v = minEdge.other();
-			if (isCellUnvisited(u) || isCellUnvisited(v)) {
-				grid.addEdge(u, v);
-				expand(isCellUnvisited(u) ? u : v);
-			}
+		while (!frontier.isEmpty()) {
+			int cell = frontier.extractMin(rnd);
+			grid.addEdge(cell, neighborhood.neighbor(cell, treeDir[cell]));
+			expand(cell);
 		}
 	}
 
+	/**
+	 * @param numCells
+	 *                   number of grid cells
+	 * @return empty queue for the frontier cells, keyed by the weight of their cheapest edge into the
+	 *         tree
+	 */
+	protected IndexedPriorityQueue createFrontier(int numCells) {
+		return new IndexedMinHeap(numCells);
+	}
+
+	/**
+	 * @return random weight of an edge from a tree cell to a cell outside of the tree
+	 */
+	protected int randomWeight() {
+		return rnd.nextInt();
+	}
+
 	private void expand(int cell) {
-		grid.set(cell, COMPLETED);
-		grid.neighbors(cell).filter(this::isCellUnvisited).forEach(neighbor -> {
-			cut.add(new WeightedEdge<>(cell, neighbor, rnd.nextInt()));
-		});
+		setCellState(cell, COMPLETED);
+		for (int dirs = neighborhood.validDirs(cell); dirs != 0; dirs &= dirs - 1) {
+			int dir = Integer.numberOfTrailingZeros(dirs);
+			int neighbor = neighborhood.neighbor(cell, dir);
+			if (isCellCompleted(neighbor)) {
+				continue;
+			}
+			int weight = randomWeight();
+			if (!frontier.contains(neighbor)) {
+				frontier.insert(neighbor, weight);
+				treeDir[neighbor] = (byte) neighborhood.opposite(dir);
+				setCellState(neighbor, VISITED);
+			}
+			else if (weight < frontier.key(neighbor)) {
+				frontier.decreaseKey(neighbor, weight);
+				treeDir[neighbor] = (byte) neighborhood.opposite(dir);
+			}
+		}
 	}
-}
\ No newline at end of file
+}
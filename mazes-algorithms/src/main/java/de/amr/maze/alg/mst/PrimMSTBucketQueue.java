@@ -0,0 +1,43 @@
+package de.amr.maze.alg.mst;
+
+import de.amr.graph.core.api.TraversalState;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.BucketQueue;
+import de.amr.maze.alg.core.IndexedPriorityQueue;
+
+/**
+ * Variant of {@link PrimMST} where the random edge weights are taken from a small range
+ * {@code 0, ..., numWeights - 1} and the frontier is a {@link BucketQueue}, so each frontier
+ * operation takes constant time.
+ * <p>
+ * Among the frontier cells with minimum key, a random one is added to the tree. With many weights
+ * the mazes look like the ones created by {@link PrimMST}, with very few weights they get closer to
+ * the ones created by a random breadth-first traversal.
+ *
+ * @author Armin Reichert
+ */
+public class PrimMSTBucketQueue extends PrimMST {
+
+	public static final int DEFAULT_NUM_WEIGHTS = 32;
+
+	private final int numWeights;
+
+	public PrimMSTBucketQueue(GridGraph2D<TraversalState, Integer> grid) {
+		this(grid, DEFAULT_NUM_WEIGHTS);
+	}
+
+	public PrimMSTBucketQueue(GridGraph2D<TraversalState, Integer> grid, int numWeights) {
+		super(grid);
+		this.numWeights = numWeights;
+	}
+
+	@Override
+	protected IndexedPriorityQueue createFrontier(int numCells) {
+		return new BucketQueue(numCells, numWeights);
+	}
+
+	@Override
+	protected int randomWeight() {
+		return rnd.nextInt(numWeights);
+	}
+}
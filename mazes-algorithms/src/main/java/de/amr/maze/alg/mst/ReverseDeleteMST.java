@@ -1,11 +1,11 @@
 package de.amr.maze.alg.mst;
 
-import static de.amr.datastruct.StreamUtils.permute;
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
 
 import de.amr.graph.core.api.Edge;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.GridSearch;
 import de.amr.maze.alg.core.MazeGenerator;
 
 /**
@@ -18,14 +18,16 @@ import de.amr.maze.alg.core.MazeGenerator;
  */
 public abstract class ReverseDeleteMST extends MazeGenerator {
 
+	private GridSearch search;
+
 	public ReverseDeleteMST(GridGraph2D<TraversalState, Integer> grid) {
 		super(grid);
 		grid.fill();
-		grid.setDefaultVertexLabel(cell -> COMPLETED);
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
+		setAllCellStates(COMPLETED);
 		Iterable<Edge> edges = permute(grid.edges())::iterator;
 		for (Edge edge : edges) {
 			if (grid.numEdges() == grid.numVertices() - 1) {
@@ -39,6 +41,16 @@ public abstract class ReverseDeleteMST extends MazeGenerator {
 		}
 	}
 
+	/**
+	 * @return the search workspace for the connectivity tests, created on first use
+	 */
+	protected GridSearch search() {
+		if (search == null) {
+			search = new GridSearch(grid);
+		}
+		return search;
+	}
+
 	/**
 	 * @param u a cell
 	 * @param v a cell
@@ -2,8 +2,7 @@ package de.amr.maze.alg.mst;
 
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.pathfinder.api.Path;
-import de.amr.graph.pathfinder.impl.BestFirstSearch;
+import de.amr.maze.alg.core.GridSearch.Mode;
 
 /**
  * Reverse-Delete-MST algorithm using best-first search for connectivity test.
@@ -20,6 +19,6 @@ public class ReverseDeleteMST_BestFS extends ReverseDeleteMST {
 
 	@Override
 	protected boolean connected(int u, int v) {
-		return new BestFirstSearch(grid, x -> grid.manhattan(x, v)).findPath(u, v) != Path.NULL;
+		return search().connected(Mode.BEST_FIRST, u, v);
 	}
 }
\ No newline at end of file
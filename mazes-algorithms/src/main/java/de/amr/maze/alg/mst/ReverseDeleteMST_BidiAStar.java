@@ -2,11 +2,11 @@ package de.amr.maze.alg.mst;
 
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.pathfinder.api.Path;
-import de.amr.graph.pathfinder.impl.BidiAStarSearch;
+import de.amr.maze.alg.core.GridSearch.Mode;
 
 /**
- * Reverse-Delete-MST algorithm using bidirectional A* for connectivity test.
+ * Reverse-Delete-MST algorithm using bidirectional best-first search (A* without path costs) for
+ * connectivity test.
  * 
  * @author Armin Reichert
  *
@@ -20,7 +20,6 @@ public class ReverseDeleteMST_BidiAStar extends ReverseDeleteMST {
 
 	@Override
 	protected boolean connected(int u, int v) {
-		return new BidiAStarSearch(grid, (v1, v2) -> 1.0, grid::euclidean, grid::euclidean).findPath(u,
-				v) != Path.NULL;
+		return search().connected(Mode.BIDI_BEST_FIRST, u, v);
 	}
 }
\ No newline at end of file
@@ -0,0 +1,25 @@
+package de.amr.maze.alg.mst;
+
+import de.amr.graph.core.api.TraversalState;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.GridSearch.Mode;
+
+/**
+ * Reverse-Delete-MST algorithm using bidirectional breadth-first search for connectivity test. The
+ * search stops as soon as the two frontiers meet.
+ * 
+ * @author Armin Reichert
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Reverse-delete_algorithm">Wikipedia</a>
+ */
+public class ReverseDeleteMST_BidiBFS extends ReverseDeleteMST {
+
+	public ReverseDeleteMST_BidiBFS(GridGraph2D<TraversalState, Integer> grid) {
+		super(grid);
+	}
+
+	@Override
+	protected boolean connected(int u, int v) {
+		return search().connected(Mode.BIDI_BFS, u, v);
+	}
+}
\ No newline at end of file
@@ -0,0 +1,61 @@
+package de.amr.maze.alg.mst;
+
+import static de.amr.graph.core.api.TraversalState.COMPLETED;
+
+import de.amr.graph.core.api.TraversalState;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.DynamicConnectivity;
+
+/**
+ * Reverse-Delete-MST algorithm using a fully dynamic connectivity structure for the connectivity
+ * test.
+ * <p>
+ * Instead of searching a path after each edge removal, the edge is deleted from a
+ * {@link DynamicConnectivity} structure holding all grid edges. The deletion searches a replacement
+ * edge, and if there is none, the edge is inserted again and kept in the maze. This takes
+ * polylogarithmic amortized time per edge, so large mazes can be created.
+ *
+ * @author Armin Reichert
+ *
+ * @see <a href="https://en.wikipedia.org/wiki/Reverse-delete_algorithm">Wikipedia</a>
+ */
+public class ReverseDeleteMST_DynamicConnectivity extends ReverseDeleteMST {
+
+	private DynamicConnectivity connectivity;
+
+	public ReverseDeleteMST_DynamicConnectivity(GridGraph2D<TraversalState, Integer> grid) {
+		super(grid);
+	}
+
+	@Override
+	protected void generateMaze(int x, int y) {
+		setAllCellStates(COMPLETED);
+		int[] edges = getTopologyCache().getEdges(neighborhood);
+		connectivity = new DynamicConnectivity(grid.numVertices(), edges.length);
+		int[] order = new int[edges.length];
+		for (int i = 0; i < edges.length; ++i) {
+			connectivity.insert(i, neighborhood.edgeCell(edges[i]), otherCell(edges[i]));
+			order[i] = i;
+		}
+		shuffle(order, 0, order.length);
+		for (int i = 0; i < order.length && grid.numEdges() > grid.numVertices() - 1; ++i) {
+			int edge = order[i], u = neighborhood.edgeCell(edges[edge]), v = otherCell(edges[edge]);
+			connectivity.delete(edge);
+			if (connectivity.connected(u, v)) {
+				grid.removeEdge(u, v);
+			}
+			else {
+				connectivity.insert(edge, u, v);
+			}
+		}
+	}
+
+	@Override
+	protected boolean connected(int u, int v) {
+		return connectivity.connected(u, v);
+	}
+
+	private int otherCell(int edge) {
+		return neighborhood.neighbor(neighborhood.edgeCell(edge), neighborhood.edgeDir(edge));
+	}
+}
@@ -1,103 +1,116 @@
 package de.amr.maze.alg.others;
 
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
-import static de.amr.graph.core.api.TraversalState.UNVISITED;
 import static de.amr.graph.grid.api.GridPosition.CENTER;
-import static de.amr.graph.grid.api.GridPosition.TOP_LEFT;
-import static de.amr.graph.grid.impl.Grid4Topology.E;
-import static de.amr.graph.grid.impl.Grid4Topology.N;
-import static de.amr.graph.grid.impl.Grid4Topology.S;
-import static de.amr.graph.grid.impl.Grid4Topology.W;
 import static java.lang.Math.max;
 
-import java.util.ArrayList;
-import java.util.Arrays;
-import java.util.Collections;
-import java.util.HashMap;
-import java.util.HashSet;
-import java.util.List;
-import java.util.Map;
-import java.util.Set;
-
-import de.amr.datastruct.Partition;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.impl.Grid4Topology;
-import de.amr.graph.grid.impl.GridFactory;
-import de.amr.graph.grid.shapes.Rectangle;
-import de.amr.graph.grid.shapes.Square;
+import de.amr.maze.alg.core.CellSequences;
+import de.amr.maze.alg.core.GridNeighborhood;
 import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.core.UnionFind;
 
 /**
  * Maze generator similar to Eller's algorithm but growing the maze inside-out. To my knowledge this
  * is a new algorithm.
+ * <p>
+ * The layers (square borders around the center, cropped to the grid) only depend on the grid size,
+ * they are computed once into flat arrays and kept in the topology cache.
  * 
  * @author Armin Reichert
  */
 public class Armin extends MazeGenerator {
 
-	private Partition<Integer> mazeParts;
-	private GridGraph2D<TraversalState, Integer> squareGrid;
-	private Square square;
-	private Iterable<Integer> layer;
-	private Map<Integer, Integer> cellIndex;
-	private int offsetX;
-	private int offsetY;
+	/**
+	 * The layers of a grid. Layer {@code i} consists of the grid cells
+	 * {@code cells[start[i]], ..., cells[start[i+1] - 1]} of the square with side length
+	 * {@code 2 * i + 1} in clockwise order starting at the top-left corner of the square.
+	 */
+	private static final class Layers {
 
-	public Armin(GridGraph2D<TraversalState, Integer> grid) {
-		super(grid);
-		int n = max(grid.numCols(), grid.numRows());
-		squareGrid = GridFactory.emptyGrid(n, n, Grid4Topology.get(), UNVISITED, 0);
-	}
+		final int[] cells;
+		final int[] start;
+		/** index of each layer cell in its (uncropped) square */
+		final int[] indexInSquare;
+		/** cells of the grid border, the final layer */
+		final int[] border;
 
-	@Override
-	public void createMaze(int x, int y) {
-		mazeParts = new Partition<>();
-		int n = max(grid.numCols(), grid.numRows());
-		offsetX = (n - grid.numCols()) / 2;
-		offsetY = (n - grid.numRows()) / 2;
-		while (nextLayer() <= squareGrid.numCols()) {
-			connectCellsInsideLayer(false);
-			connectCellsWithNextLayer();
-		}
-		layer = new Rectangle(grid, grid.cell(TOP_LEFT), grid.numCols(), grid.numRows());
-		connectCellsInsideLayer(true);
+		Layers(GridGraph2D<?, ?> grid, GridNeighborhood neighborhood) {
+			int numCols = grid.numCols(), numRows = grid.numRows(), n = max(numCols, numRows);
+			int offsetX = (n - numCols) / 2, offsetY = (n - numRows) / 2;
+			int center = grid.cell(CENTER);
+			int centerX = grid.col(center) + offsetX, centerY = grid.row(center) + offsetY;
+			int numLayers = (n + 1) / 2;
+			cells = new int[grid.numVertices()];
+			start = new int[numLayers + 1];
+			indexInSquare = new int[grid.numVertices()];
+			int numCells = 0;
+			for (int layer = 0; layer < numLayers; ++layer) {
+				start[layer] = numCells;
+				int size = 2 * layer + 1, x0 = centerX - layer - offsetX, y0 = centerY - layer - offsetY;
+				int perimeter = max(1, 4 * (size - 1));
+				for (int index = 0; index < perimeter; ++index) {
+					int x = x0, y = y0, side = size - 1;
+					if (index < side) {
+						x += index;
+					}
+					else if (index < 2 * side) {
+						x += side;
+						y += index - side;
+					}
+					else if (index < 3 * side) {
+						x += 3 * side - index;
+						y += side;
+					}
+					else {
+						y += 4 * side - index;
+					}
+					if (grid.isValidCol(x) && grid.isValidRow(y)) {
+						int cell = grid.cell(x, y);
+						cells[numCells++] = cell;
+						indexInSquare[cell] = index;
+					}
+				}
+			}
+			start[numLayers] = numCells;
+			border = CellSequences.toArray(CellSequences.rectangle(neighborhood, 0, 0, numCols, numRows));
+		}
+
+		int numLayers() {
+			return start.length - 1;
+		}
+
+		long memoryBytes() {
+			return 64 + 4L * (cells.length + start.length + indexInSquare.length + border.length);
+		}
 	}
 
-	private int nextLayer() {
-		int x, y, size;
-		if (square == null) {
-			int center = grid.cell(CENTER);
-			x = grid.col(center) + offsetX;
-			y = grid.row(center) + offsetY;
-			size = 1;
-		} else {
-			x = squareGrid.col(square.getTopLeft()) - 1;
-			y = squareGrid.row(square.getTopLeft()) - 1;
-			size = square.getSize() + 2;
-		}
-		if (size <= squareGrid.numCols()) {
-			square = new Square(squareGrid, squareGrid.cell(x, y), size);
-			layer = croppedLayer();
-		}
-		return size;
+	private Layers layers;
+	private UnionFind mazeParts;
+	private int[] partConnectedInLayer;
+	private int layerNumber;
+	private final int[] candidates = new int[4];
+	private int numCandidates;
+
+	public Armin(GridGraph2D<TraversalState, Integer> grid) {
+		super(grid);
 	}
 
-	private List<Integer> croppedLayer() {
-		List<Integer> result = new ArrayList<>();
-		cellIndex = new HashMap<>();
-		int index = 0;
-		for (int cell : square) {
-			int x = squareGrid.col(cell) - offsetX;
-			int y = squareGrid.row(cell) - offsetY;
-			if (grid.isValidCol(x) && grid.isValidRow(y)) {
-				int gridCell = grid.cell(x, y);
-				result.add(gridCell);
-				cellIndex.put(gridCell, index);
-			}
-			++index;
+	@Override
+	protected void generateMaze(int x, int y) {
+		layers = getTopologyCache().get("armin-layers", neighborhood, () -> new Layers(grid, neighborhood),
+				Layers::memoryBytes);
+		mazeParts = new UnionFind(grid.numVertices());
+		// partConnectedInLayer[root] == layerNumber <=> part has been connected with next layer
+		partConnectedInLayer = new int[grid.numVertices()];
+		layerNumber = 0;
+		for (int layer = 0; layer < layers.numLayers(); ++layer) {
+			int from = layers.start[layer], to = layers.start[layer + 1];
+			connectCellsInsideLayer(layers.cells, from, to, false);
+			connectCellsWithNextLayer(from, to, 2 * layer + 1);
 		}
-		return result;
+		connectCellsInsideLayer(layers.border, 0, layers.border.length, true);
 	}
 
 	private void connectCells(int u, int v) {
@@ -105,102 +118,140 @@ public class Armin extends MazeGenerator {
 			return;
 		}
 		grid.addEdge(u, v);
-		grid.set(u, COMPLETED);
-		grid.set(v, COMPLETED);
+		showCellState(u, COMPLETED);
+		showCellState(v, COMPLETED);
 		mazeParts.union(u, v);
 	}
 
-	private void connectCellsInsideLayer(boolean all) {
-		int prevCell = -1, firstCell = -1;
-		for (int cell : layer) {
-			if (firstCell == -1) {
-				firstCell = cell;
-			}
-			if (prevCell != -1 && grid.areNeighbors(prevCell, cell)) {
+	private void connectCellsInsideLayer(int[] cells, int from, int to, boolean all) {
+		if (from == to) {
+			return;
+		}
+		for (int i = from + 1; i < to; ++i) {
+			int prevCell = cells[i - 1], cell = cells[i];
+			if (grid.areNeighbors(prevCell, cell)) {
 				if (all || rnd.nextBoolean()) {
 					if (mazeParts.find(prevCell) != mazeParts.find(cell)) {
 						connectCells(prevCell, cell);
 					}
 				}
 			}
-			prevCell = cell;
 		}
-		if (prevCell != -1 && firstCell != -1 && prevCell != firstCell && grid.areNeighbors(prevCell, firstCell)
-				&& !grid.adjacent(prevCell, firstCell)) {
+		int firstCell = cells[from], lastCell = cells[to - 1];
+		if (lastCell != firstCell && grid.areNeighbors(lastCell, firstCell)
+				&& !grid.adjacent(lastCell, firstCell)) {
 			if (all || rnd.nextBoolean()) {
-				if (mazeParts.find(prevCell) != mazeParts.find(firstCell)) {
-					connectCells(prevCell, firstCell);
+				if (mazeParts.find(lastCell) != mazeParts.find(firstCell)) {
+					connectCells(lastCell, firstCell);
 				}
 			}
 		}
 	}
 
-	private void connectCellsWithNextLayer() {
-		Set<Partition<Integer>.Set> connected = new HashSet<>();
+	private void connectCellsWithNextLayer(int from, int to, int squareSize) {
+		++layerNumber;
 		// randomly select cells and connect with the next layer unless another cell from the same
 		// equivalence class is already connected to that layer
-		for (int cell : layer) {
-			if (rnd.nextBoolean() && !connected.contains(mazeParts.find(cell))) {
-				List<Integer> candidates = collectNeighborsInNextLayer(cell);
-				if (!candidates.isEmpty()) {
-					int neighbor = candidates.get(rnd.nextInt(candidates.size()));
-					connectCells(cell, neighbor);
-					connected.add(mazeParts.find(cell));
-				}
+		for (int i = from; i < to; ++i) {
+			int cell = layers.cells[i];
+			if (rnd.nextBoolean() && !isConnectedWithNextLayer(cell)) {
+				connectWithNextLayer(cell, squareSize);
 			}
 		}
 
 		// collect cells of still unconnected maze parts and shuffle them to avoid biased maze
-		List<Integer> unconnectedCells = new ArrayList<>();
-		for (int cell : layer) {
-			if (!connected.contains(mazeParts.find(cell))) {
-				unconnectedCells.add(cell);
+		int[] unconnectedCells = new int[to - from];
+		int numUnconnected = 0;
+		for (int i = from; i < to; ++i) {
+			int cell = layers.cells[i];
+			if (!isConnectedWithNextLayer(cell)) {
+				unconnectedCells[numUnconnected++] = cell;
 			}
 		}
-		Collections.shuffle(unconnectedCells);
+		shuffle(unconnectedCells, 0, numUnconnected);
 
 		// connect remaining cells and mark maze parts as connected
-		for (int cell : unconnectedCells) {
-			if (!connected.contains(mazeParts.find(cell))) {
-				List<Integer> candidates = collectNeighborsInNextLayer(cell);
-				if (!candidates.isEmpty()) {
-					int neighbor = candidates.get(rnd.nextInt(candidates.size()));
-					connectCells(cell, neighbor);
-					connected.add(mazeParts.find(cell));
-				}
+		for (int i = 0; i < numUnconnected; ++i) {
+			int cell = unconnectedCells[i];
+			if (!isConnectedWithNextLayer(cell)) {
+				connectWithNextLayer(cell, squareSize);
 			}
 		}
 	}
 
-	private List<Integer> collectNeighborsInNextLayer(int cell) {
-		List<Integer> result = new ArrayList<>(4);
-		int squareSize = square.getSize();
+	private void connectWithNextLayer(int cell, int squareSize) {
+		collectNeighborsInNextLayer(cell, squareSize);
+		if (numCandidates > 0) {
+			connectCells(cell, candidates[rnd.nextInt(numCandidates)]);
+			partConnectedInLayer[mazeParts.find(cell)] = layerNumber;
+		}
+	}
+
+	private boolean isConnectedWithNextLayer(int cell) {
+		return partConnectedInLayer[mazeParts.find(cell)] == layerNumber;
+	}
+
+	private void collectNeighborsInNextLayer(int cell, int squareSize) {
+		numCandidates = 0;
 		if (squareSize == 1) {
-			addNeighborsIfAny(result, cell, N, E, S, W);
-			return result;
+			addNeighborN(cell);
+			addNeighborE(cell);
+			addNeighborS(cell);
+			addNeighborW(cell);
+			return;
 		}
-		int index = cellIndex.get(cell);
+		int index = layers.indexInSquare[cell], side = squareSize - 1;
 		if (index == 0) {
-			addNeighborsIfAny(result, cell, W, N);
-		} else if (index < squareSize - 1) {
-			addNeighborsIfAny(result, cell, N);
-		} else if (index == squareSize - 1) {
-			addNeighborsIfAny(result, cell, N, E);
-		} else if (index < 2 * (squareSize - 1)) {
-			addNeighborsIfAny(result, cell, E);
-		} else if (index == 2 * (squareSize - 1)) {
-			addNeighborsIfAny(result, cell, E, S);
-		} else if (index < 3 * (squareSize - 1)) {
-			addNeighborsIfAny(result, cell, S);
-		} else if (index == 3 * (squareSize - 1)) {
-			addNeighborsIfAny(result, cell, S, W);
-		} else {
-			addNeighborsIfAny(result, cell, W);
-		}
-		return result;
+			addNeighborW(cell);
+			addNeighborN(cell);
+		}
+		else if (index < side) {
+			addNeighborN(cell);
+		}
+		else if (index == side) {
+			addNeighborN(cell);
+			addNeighborE(cell);
+		}
+		else if (index < 2 * side) {
+			addNeighborE(cell);
+		}
+		else if (index == 2 * side) {
+			addNeighborE(cell);
+			addNeighborS(cell);
+		}
+		else if (index < 3 * side) {
+			addNeighborS(cell);
+		}
+		else if (index == 3 * side) {
+			addNeighborS(cell);
+			addNeighborW(cell);
+		}
+		else {
+			addNeighborW(cell);
+		}
 	}
 
-	private void addNeighborsIfAny(List<Integer> list, int cell, Byte... dirs) {
-		Arrays.stream(dirs).forEach(dir -> grid.neighbor(cell, dir).ifPresent(list::add));
+	private void addNeighborN(int cell) {
+		if (grid.row(cell) > 0) {
+			candidates[numCandidates++] = cell - grid.numCols();
+		}
+	}
+
+	private void addNeighborE(int cell) {
+		if (grid.col(cell) < grid.numCols() - 1) {
+			candidates[numCandidates++] = cell + 1;
+		}
+	}
+
+	private void addNeighborS(int cell) {
+		if (grid.row(cell) < grid.numRows() - 1) {
+			candidates[numCandidates++] = cell + grid.numCols();
+		}
+	}
+
+	private void addNeighborW(int cell) {
+		if (grid.col(cell) > 0) {
+			candidates[numCandidates++] = cell - 1;
+		}
 	}
 }
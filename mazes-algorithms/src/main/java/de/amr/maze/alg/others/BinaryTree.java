@@ -47,14 +47,14 @@ public class BinaryTree extends MazeGenerator {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		GridPosition rootPosition = Arrays.stream(GridPosition.values()).filter(pos -> grid.cell(pos) == grid.cell(x, y))
 				.findFirst().orElse(TOP_LEFT);
 		byte[] branching = branchingByRootPosition.get(rootPosition);
 		cells().forEach(v -> findRandomParent(v, branching[0], branching[1]).ifPresent(parent -> {
 			grid.addEdge(v, parent);
-			grid.set(v, COMPLETED);
-			grid.set(parent, COMPLETED);
+			showCellState(v, COMPLETED);
+			showCellState(parent, COMPLETED);
 		}));
 	}
 
@@ -1,7 +1,5 @@
 package de.amr.maze.alg.others;
 
-import static de.amr.datastruct.StreamUtils.permute;
-
 import java.util.stream.IntStream;
 
 import de.amr.graph.core.api.TraversalState;
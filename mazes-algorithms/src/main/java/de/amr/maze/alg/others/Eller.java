@@ -4,18 +4,17 @@ import static de.amr.graph.core.api.TraversalState.COMPLETED;
 import static java.util.stream.IntStream.range;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
-import java.util.HashSet;
 import java.util.List;
 import java.util.OptionalInt;
-import java.util.Set;
 
-import de.amr.datastruct.Partition;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
 import de.amr.graph.grid.impl.Grid4Topology;
 import de.amr.graph.grid.impl.Grid8Topology;
 import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.core.UnionFind;
 
 /**
  * Maze generator using Eller's algorithm.
@@ -29,14 +28,19 @@ import de.amr.maze.alg.core.MazeGenerator;
  */
 public class Eller extends MazeGenerator {
 
-	private Partition<Integer> parts = new Partition<>();
+	private UnionFind parts;
+	private int[] partConnectedInRow;
 
 	public Eller(GridGraph2D<TraversalState, Integer> grid) {
 		super(grid);
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
+		parts = new UnionFind(grid.numVertices());
+		// partConnectedInRow[root] == row <=> part with given root has been connected with row below
+		partConnectedInRow = new int[grid.numVertices()];
+		Arrays.fill(partConnectedInRow, -1);
 		range(0, grid.numRows() - 1).forEach(row -> {
 			connectCellsInsideRow(row, false);
 			connectCellsWithNextRow(row);
@@ -46,8 +50,8 @@ public class Eller extends MazeGenerator {
 
 	private void connectCells(int u, int v) {
 		grid.addEdge(u, v);
-		grid.set(u, COMPLETED);
-		grid.set(v, COMPLETED);
+		showCellState(u, COMPLETED);
+		showCellState(v, COMPLETED);
 		parts.union(u, v);
 	}
 
@@ -62,13 +66,12 @@ public class Eller extends MazeGenerator {
 
 	private void connectCellsWithNextRow(int row) {
 		// connect randomly selected cells of this row with next row
-		Set<Partition<Integer>.Set> connectedParts = new HashSet<>();
 		range(0, grid.numCols()).filter(col -> rnd.nextBoolean()).forEach(col -> {
 			int above = grid.cell(col, row);
 			randomUnconnectedCellBelow(col, row).ifPresent(below -> {
 				if (parts.find(above) != parts.find(below)) {
 					connectCells(above, below);
-					connectedParts.add(parts.find(above));
+					partConnectedInRow[parts.find(above)] = row;
 				}
 			});
 		});
@@ -76,21 +79,19 @@ public class Eller extends MazeGenerator {
 		List<Integer> unconnectedCells = new ArrayList<>();
 		range(0, grid.numCols()).forEach(col -> {
 			int cell = grid.cell(col, row);
-			Partition<Integer>.Set part = parts.find(cell);
-			if (!connectedParts.contains(part)) {
+			if (partConnectedInRow[parts.find(cell)] != row) {
 				unconnectedCells.add(cell);
 			}
 		});
 		// shuffle unconnected cells to avoid biased maze
-		Collections.shuffle(unconnectedCells);
+		Collections.shuffle(unconnectedCells, rnd);
 		// connect cells and mark component as connected
 		unconnectedCells.forEach(top -> {
-			Partition<Integer>.Set part = parts.find(top);
-			if (!connectedParts.contains(part)) {
+			if (partConnectedInRow[parts.find(top)] != row) {
 				int bottom = grid.cell(grid.col(top), row + 1);
 				if (parts.find(top) != parts.find(bottom)) {
 					connectCells(top, bottom);
-					connectedParts.add(part);
+					partConnectedInRow[parts.find(top)] = row;
 				}
 			}
 		});
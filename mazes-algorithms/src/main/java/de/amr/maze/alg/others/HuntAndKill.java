@@ -1,10 +1,8 @@
 package de.amr.maze.alg.others;
 
-import static de.amr.datastruct.StreamUtils.randomElement;
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
 
 import java.util.BitSet;
-import java.util.Optional;
 
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
@@ -28,24 +26,38 @@ public class HuntAndKill extends MazeGenerator {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		targets = new BitSet(grid.numVertices());
 		int animal = grid.cell(x, y);
 		do {
 			kill(animal);
-			Optional<Integer> livingNeighbor = randomElement(grid.neighbors(animal).filter(this::isAlive));
-			if (livingNeighbor.isPresent()) {
-				grid.neighbors(animal).filter(this::isAlive).forEach(targets::set);
-				grid.addEdge(animal, livingNeighbor.get());
-				animal = livingNeighbor.get();
+			int livingNeighborDirs = neighborDirs(animal, true);
+			if (livingNeighborDirs != 0) {
+				int livingNeighbor = neighborhood.neighbor(animal, randomDir(livingNeighborDirs));
+				for (int dirs = livingNeighborDirs; dirs != 0; dirs &= dirs - 1) {
+					targets.set(neighborhood.neighbor(animal, Integer.numberOfTrailingZeros(dirs)));
+				}
+				grid.addEdge(animal, livingNeighbor);
+				animal = livingNeighbor;
 			}
 			else if (!targets.isEmpty()) {
 				animal = hunt();
-				grid.addEdge(animal, randomElement(grid.neighbors(animal).filter(this::isDead)).get());
+				grid.addEdge(animal, neighborhood.neighbor(animal, randomDir(neighborDirs(animal, false))));
 			}
 		} while (!targets.isEmpty());
 	}
 
+	private int neighborDirs(int cell, boolean alive) {
+		int result = 0;
+		for (int dirs = neighborhood.validDirs(cell); dirs != 0; dirs &= dirs - 1) {
+			int dir = Integer.numberOfTrailingZeros(dirs);
+			if (isAlive(neighborhood.neighbor(cell, dir)) == alive) {
+				result |= 1 << dir;
+			}
+		}
+		return result;
+	}
+
 	protected boolean isAlive(int v) {
 		return isCellUnvisited(v);
 	}
@@ -59,7 +71,7 @@ public class HuntAndKill extends MazeGenerator {
 	}
 
 	protected void kill(int animal) {
-		grid.set(animal, COMPLETED);
+		setCellState(animal, COMPLETED);
 		targets.clear(animal);
 	}
 }
\ No newline at end of file
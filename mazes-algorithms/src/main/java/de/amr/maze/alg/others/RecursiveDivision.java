@@ -1,65 +1,207 @@
 package de.amr.maze.alg.others;
 
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
-import static java.util.stream.IntStream.range;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
 
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
 import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.core.MazeRandom;
 
 /**
  * Creates maze by recursive division.
- * 
+ * <p>
+ * The grid is not filled with all passages first. The walls built by the division are recorded in a
+ * bit mask per cell (wall to the south and to the east), and when the division is done, only the
+ * remaining passages are added to the grid. The subgrids still to divide are kept on an explicit
+ * stack, so large grids cannot overflow the call stack.
+ * <p>
+ * If a pool is set, subgrids of at least {@link #FORK_THRESHOLD} cells are divided in parallel: the
+ * two parts of such a subgrid are divided by subtasks, the first one using a random number generator
+ * split off from the generator of the subgrid, the second one continuing with it. Each task only
+ * writes the wall masks of its own cells. The maze depends only on the seed, not on the number of
+ * threads.
+ *
  * @author Armin Reichert
- * 
+ *
  * @see <a href=
  *      "http://weblog.jamisbuck.org/2011/1/12/maze-generation-recursive-division-algorithm.html">Maze
  *      Generation: Recursive Division</a>
  */
 public class RecursiveDivision extends MazeGenerator {
 
+	/** Minimum number of cells of a subgrid that is divided by parallel subtasks. */
+	public static final int FORK_THRESHOLD = 1 << 16;
+
+	private static final byte WALL_SOUTH = 1;
+	private static final byte WALL_EAST = 2;
+
+	private ForkJoinPool pool;
+
 	public RecursiveDivision(GridGraph2D<TraversalState, Integer> grid) {
 		super(grid);
-		grid.fillOrthogonal();
-		grid.setDefaultVertexLabel(cell -> COMPLETED);
+	}
+
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * @param pool
+	 *               pool dividing large subgrids in parallel or {@code null} for sequential division
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
-		divide(0, 0, grid.numCols(), grid.numRows());
+	protected void generateMaze(int x, int y) {
+		setAllCellStates(COMPLETED);
+		byte[] walls = new byte[grid.numVertices()];
+		if (pool != null) {
+			pool.invoke(new DivideTask(0, 0, grid.numCols(), grid.numRows(), MazeRandom.splittable(rnd.nextLong()),
+					walls));
+		}
+		else {
+			divide(0, 0, grid.numCols(), grid.numRows(), rnd, walls);
+		}
+		addPassages(walls);
 	}
 
 	/**
-	 * Divides the {@code (w x h)}-subgrid with top-left position {@code (x0, y0)}.
-	 * 
-	 * @param x0 x-position of subgrid
-	 * @param y0 y-position subgrid
-	 * @param w  width of subgrid
-	 * @param h  height of subgrid
+	 * Divides the {@code (w x h)}-subgrid with top-left position {@code (x0, y0)}. The subgrids are
+	 * divided in the same order as by the recursive formulation, the first part of a subgrid before the
+	 * second one.
+	 *
+	 * @param x0    x-position of subgrid
+	 * @param y0    y-position subgrid
+	 * @param w     width of subgrid
+	 * @param h     height of subgrid
+	 * @param rnd   random number generator
+	 * @param walls wall bit masks of the cells
 	 */
-	private void divide(int x0, int y0, int w, int h) {
-		if (w <= 1 && h <= 1) {
-			return;
+	private void divide(int x0, int y0, int w, int h, Random rnd, byte[] walls) {
+		int[] stack = new int[4 * 32]; // (x0, y0, w, h) per subgrid
+		int top = push(stack, 0, x0, y0, w, h);
+		while (top > 0) {
+			h = stack[--top];
+			w = stack[--top];
+			y0 = stack[--top];
+			x0 = stack[--top];
+			if (w <= 1 && h <= 1) {
+				continue;
+			}
+			if (stack.length - top < 8) {
+				stack = Arrays.copyOf(stack, 2 * stack.length);
+			}
+			if (horizontalWall(w, h, rnd)) {
+				int y = buildHorizontalWall(x0, y0, w, h, rnd, walls);
+				top = push(stack, top, x0, y, w, h - (y - y0));
+				top = push(stack, top, x0, y0, w, y - y0);
+			}
+			else {
+				int x = buildVerticalWall(x0, y0, w, h, rnd, walls);
+				top = push(stack, top, x, y0, w - (x - x0), h);
+				top = push(stack, top, x0, y0, x - x0, h);
+			}
 		}
-		if (w < h || (w == h && rnd.nextBoolean())) {
-			// Build "horizontal wall" at random y from [y0 + 1, y0 + h - 1], keep random
-			// door
-			int y = y0 + 1 + rnd.nextInt(h - 1);
-			int door = x0 + rnd.nextInt(w);
-			range(x0, x0 + w).filter(x -> x != door).forEach(x -> {
-				grid.edge(grid.cell(x, y - 1), grid.cell(x, y)).ifPresent(grid::removeEdge);
-			});
-			divide(x0, y0, w, y - y0);
-			divide(x0, y, w, h - (y - y0));
-		} else {
-			// Build "vertical wall" at random x from [x0 + 1, x0 + w - 1], keep random door
-			int x = x0 + 1 + rnd.nextInt(w - 1);
-			int door = y0 + rnd.nextInt(h);
-			range(y0, y0 + h).filter(y -> y != door).forEach(y -> {
-				grid.edge(grid.cell(x - 1, y), grid.cell(x, y)).ifPresent(grid::removeEdge);
-			});
-			divide(x0, y0, x - x0, h);
-			divide(x, y0, w - (x - x0), h);
+	}
+
+	private int push(int[] stack, int top, int x0, int y0, int w, int h) {
+		stack[top++] = x0;
+		stack[top++] = y0;
+		stack[top++] = w;
+		stack[top++] = h;
+		return top;
+	}
+
+	private boolean horizontalWall(int w, int h, Random rnd) {
+		return w < h || (w == h && rnd.nextBoolean());
+	}
+
+	/**
+	 * Builds "horizontal wall" at random y from [y0 + 1, y0 + h - 1], keeps random door.
+	 *
+	 * @return y-position of the wall
+	 */
+	private int buildHorizontalWall(int x0, int y0, int w, int h, Random rnd, byte[] walls) {
+		int y = y0 + 1 + rnd.nextInt(h - 1);
+		int door = x0 + rnd.nextInt(w);
+		for (int x = x0; x < x0 + w; ++x) {
+			if (x != door) {
+				walls[grid.cell(x, y - 1)] |= WALL_SOUTH;
+			}
+		}
+		return y;
+	}
+
+	/**
+	 * Builds "vertical wall" at random x from [x0 + 1, x0 + w - 1], keeps random door.
+	 *
+	 * @return x-position of the wall
+	 */
+	private int buildVerticalWall(int x0, int y0, int w, int h, Random rnd, byte[] walls) {
+		int x = x0 + 1 + rnd.nextInt(w - 1);
+		int door = y0 + rnd.nextInt(h);
+		for (int y = y0; y < y0 + h; ++y) {
+			if (y != door) {
+				walls[grid.cell(x - 1, y)] |= WALL_EAST;
+			}
+		}
+		return x;
+	}
+
+	private void addPassages(byte[] walls) {
+		int numCols = grid.numCols(), numRows = grid.numRows();
+		for (int row = 0, cell = 0; row < numRows; ++row) {
+			for (int col = 0; col < numCols; ++col, ++cell) {
+				if (col + 1 < numCols && (walls[cell] & WALL_EAST) == 0) {
+					grid.addEdge(cell, cell + 1);
+				}
+				if (row + 1 < numRows && (walls[cell] & WALL_SOUTH) == 0) {
+					grid.addEdge(cell, cell + numCols);
+				}
+			}
+		}
+	}
+
+	private class DivideTask extends RecursiveAction {
+
+		private final int x0;
+		private final int y0;
+		private final int w;
+		private final int h;
+		private final MazeRandom rnd;
+		private final byte[] walls;
+
+		DivideTask(int x0, int y0, int w, int h, MazeRandom rnd, byte[] walls) {
+			this.x0 = x0;
+			this.y0 = y0;
+			this.w = w;
+			this.h = h;
+			this.rnd = rnd;
+			this.walls = walls;
+		}
+
+		@Override
+		protected void compute() {
+			if ((long) w * h < FORK_THRESHOLD) {
+				divide(x0, y0, w, h, rnd, walls);
+			}
+			else if (horizontalWall(w, h, rnd)) {
+				int y = buildHorizontalWall(x0, y0, w, h, rnd, walls);
+				invokeAll(new DivideTask(x0, y0, w, y - y0, rnd.split(), walls),
+						new DivideTask(x0, y, w, h - (y - y0), rnd, walls));
+			}
+			else {
+				int x = buildVerticalWall(x0, y0, w, h, rnd, walls);
+				invokeAll(new DivideTask(x0, y0, x - x0, h, rnd.split(), walls),
+						new DivideTask(x, y0, w - (x - x0), h, rnd, walls));
+			}
 		}
 	}
-}
\ No newline at end of file
+}
@@ -25,7 +25,7 @@ public class Sidewinder extends MazeGenerator {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		range(0, grid.numRows()).forEach(row -> {
 			current = 0;
 			range(0, grid.numCols()).forEach(col -> {
@@ -33,15 +33,15 @@ public class Sidewinder extends MazeGenerator {
 					int passageCol = current + rnd.nextInt(col - current + 1);
 					int north = grid.cell(passageCol, row - 1), south = grid.cell(passageCol, row);
 					grid.addEdge(north, south);
-					grid.set(north, COMPLETED);
-					grid.set(south, COMPLETED);
+					showCellState(north, COMPLETED);
+					showCellState(south, COMPLETED);
 					current = col + 1;
 				}
 				else if (col + 1 < grid.numCols()) {
 					int west = grid.cell(col, row), east = grid.cell(col + 1, row);
 					grid.addEdge(west, east);
-					grid.set(west, COMPLETED);
-					grid.set(east, COMPLETED);
+					showCellState(west, COMPLETED);
+					showCellState(east, COMPLETED);
 				}
 			});
 		});
@@ -1,18 +1,18 @@
 package de.amr.maze.alg.traversal;
 
-import static de.amr.datastruct.StreamUtils.permute;
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
 import static de.amr.graph.core.api.TraversalState.VISITED;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.Frontier;
 import de.amr.maze.alg.core.MazeGenerator;
 
 /**
  * "Growing tree" base algorithm.
+ * <p>
+ * The frontier is a {@link Frontier} of primitive cell indices, so selecting the first, the last or
+ * a random cell takes constant time.
  * 
  * @see <a href=
  *      "http://weblog.jamisbuck.org/2011/1/27/maze-generation-growing-tree-algorithm.html">Maze
@@ -27,22 +27,26 @@ public abstract class GrowingTree extends MazeGenerator {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
-		List<Integer> frontier = new ArrayList<>();
+	protected void generateMaze(int x, int y) {
+		Frontier frontier = new Frontier();
 		int start = grid.cell(x, y);
-		grid.set(start, VISITED);
+		setCellState(start, VISITED);
 		frontier.add(start);
 		while (!frontier.isEmpty()) {
 			int cell = selectCell(frontier);
-			permute(grid.neighbors(cell).filter(this::isCellUnvisited)).forEach(neighbor -> {
-				grid.set(neighbor, VISITED);
+			// add the unvisited neighbors in random order
+			for (int dirs = unvisitedNeighborDirs(cell); dirs != 0;) {
+				int dir = randomDir(dirs);
+				dirs &= ~(1 << dir);
+				int neighbor = neighborhood.neighbor(cell, dir);
+				setCellState(neighbor, VISITED);
 				frontier.add(neighbor);
 				grid.addEdge(cell, neighbor);
-			});
-			grid.set(cell, COMPLETED);
+			}
+			showCellState(cell, COMPLETED);
 		}
 	}
 
 	/** Selects and removes a cell from the frontier. */
-	protected abstract int selectCell(List<Integer> frontier);
+	protected abstract int selectCell(Frontier frontier);
 }
\ No newline at end of file
@@ -1,9 +1,8 @@
 package de.amr.maze.alg.traversal;
 
-import java.util.List;
-
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.Frontier;
 
 /**
  * Growing tree algorithm where always the first vertex is selected from the frontier.
@@ -17,7 +16,7 @@ public class GrowingTreeAlwaysFirst extends GrowingTree {
 	}
 
 	@Override
-	protected int selectCell(List<Integer> frontier) {
-		return frontier.remove(0);
+	protected int selectCell(Frontier frontier) {
+		return frontier.removeFirst();
 	}
 }
\ No newline at end of file
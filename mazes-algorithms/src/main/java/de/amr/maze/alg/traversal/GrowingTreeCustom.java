@@ -0,0 +1,30 @@
+package de.amr.maze.alg.traversal;
+
+import de.amr.graph.core.api.TraversalState;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.Frontier;
+
+/**
+ * Growing tree algorithm where the frontier cell is selected by a {@link GrowingTreeStrategy}, for
+ * example 75% newest and 25% random cell.
+ * 
+ * @author Armin Reichert
+ */
+public class GrowingTreeCustom extends GrowingTree {
+
+	private final GrowingTreeStrategy strategy;
+
+	public GrowingTreeCustom(GridGraph2D<TraversalState, Integer> grid, GrowingTreeStrategy strategy) {
+		super(grid);
+		this.strategy = strategy;
+	}
+
+	public GrowingTreeStrategy getStrategy() {
+		return strategy;
+	}
+
+	@Override
+	protected int selectCell(Frontier frontier) {
+		return frontier.removeAt(strategy.selectIndex(frontier.size(), rnd));
+	}
+}
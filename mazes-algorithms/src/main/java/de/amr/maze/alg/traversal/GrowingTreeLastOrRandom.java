@@ -1,9 +1,8 @@
 package de.amr.maze.alg.traversal;
 
-import java.util.List;
-
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.Frontier;
 
 /**
  * Growing tree algorithm where either the last or a random vertex is selected from the frontier.
@@ -17,7 +16,7 @@ public class GrowingTreeLastOrRandom extends GrowingTree {
 	}
 
 	@Override
-	protected int selectCell(List<Integer> frontier) {
-		return frontier.remove(rnd.nextBoolean() ? frontier.size() - 1 : rnd.nextInt(frontier.size()));
+	protected int selectCell(Frontier frontier) {
+		return rnd.nextBoolean() ? frontier.removeLast() : frontier.removeRandom(rnd);
 	}
 }
\ No newline at end of file
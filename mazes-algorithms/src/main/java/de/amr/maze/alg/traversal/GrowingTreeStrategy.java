@@ -0,0 +1,69 @@
+package de.amr.maze.alg.traversal;
+
+import java.util.Random;
+
+import de.amr.maze.alg.core.Frontier;
+
+/**
+ * Selects the index of the next cell from a growing tree frontier of a given size. Index {@code 0}
+ * is the front, index {@code size - 1} the newest frontier cell (see {@link Frontier}). The front
+ * cell is the oldest one only as long as cells are removed from the front or the end; removing a
+ * cell from the middle fills the hole with the front cell.
+ * 
+ * @author Armin Reichert
+ */
+@FunctionalInterface
+public interface GrowingTreeStrategy {
+
+	/**
+	 * @param frontierSize
+	 *                       size of the (non-empty) frontier
+	 * @param rnd
+	 *                       random number generator
+	 * @return index of the selected cell
+	 */
+	int selectIndex(int frontierSize, Random rnd);
+
+	/** Always selects the newest cell (depth-first). */
+	static GrowingTreeStrategy newest() {
+		return (size, rnd) -> size - 1;
+	}
+
+	/**
+	 * Always selects the front cell of the frontier. Used alone, this is the oldest cell
+	 * (breadth-first). Combined with a strategy removing cells from the middle, like in
+	 * {@code mixed(0.5, front(), random())}, it is not: the front cells have been moved into the holes.
+	 */
+	static GrowingTreeStrategy front() {
+		return (size, rnd) -> 0;
+	}
+
+	/** Selects a random cell (Prim-like). */
+	static GrowingTreeStrategy random() {
+		return (size, rnd) -> rnd.nextInt(size);
+	}
+
+	/**
+	 * Selects with the given probability by the first and otherwise by the second strategy, for
+	 * example {@code mixed(0.75, newest(), random())}.
+	 * <p>
+	 * Note that {@link #random()} removes cells from the middle of the frontier, whose holes are filled
+	 * with the front cell (see {@link Frontier#removeAt(int)}). Therefore a mix of {@link #front()}
+	 * and {@link #random()} is not a mix of breadth-first and random selection. Mixes of {@link #newest()} and {@link #random()} are not affected.
+	 * 
+	 * @param probability
+	 *                      probability of using the first strategy
+	 * @param first
+	 *                      first strategy
+	 * @param second
+	 *                      second strategy
+	 * @return the mixed strategy
+	 */
+	static GrowingTreeStrategy mixed(double probability, GrowingTreeStrategy first, GrowingTreeStrategy second) {
+		if (probability < 0 || probability > 1) {
+			throw new IllegalArgumentException("Probability must be from [0, 1]: " + probability);
+		}
+		return (size, rnd) -> rnd.nextDouble() < probability ? first.selectIndex(size, rnd)
+				: second.selectIndex(size, rnd);
+	}
+}
@@ -1,52 +1,72 @@
 package de.amr.maze.alg.traversal;
 
-import static de.amr.datastruct.StreamUtils.randomElement;
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
 import static de.amr.graph.core.api.TraversalState.VISITED;
 
-import java.util.ArrayDeque;
-import java.util.Deque;
+import java.util.Arrays;
 
-import de.amr.graph.core.api.Graph;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
 import de.amr.maze.alg.core.MazeGenerator;
 
 /**
  * Generates a maze by iterative random depth-first traversal of a grid.
+ * <p>
+ * The cells are visited in the same order as by the recursive formulation: from the current cell, a
+ * random unvisited neighbor is entered and the search returns to the cell when that subtree is
+ * done. The recursion is replaced by an explicit stack of frames, each holding a cell and the bit
+ * mask of the directions not tried yet from that cell. So no neighbor stream is created when
+ * backtracking, and the memory is a few bytes per stack frame, which makes grids with hundreds of
+ * millions of cells feasible.
  * 
  * @author Armin Reichert
  */
 public class IterativeDFS extends MazeGenerator {
 
+	private int[] stackCells;
+	private byte[] stackDirs; // directions not tried yet from the cell at the same stack position
+
 	public IterativeDFS(GridGraph2D<TraversalState, Integer> grid) {
 		super(grid);
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
-		Deque<Integer> stack = new ArrayDeque<>();
-		int current = grid.cell(x, y);
-		grid.set(current, VISITED);
-		stack.push(current);
-		while (!stack.isEmpty()) {
-			int neighbor = randomElement(grid.neighbors(current).filter(this::isCellUnvisited))
-					.orElse(Graph.NO_VERTEX);
-			if (neighbor != Graph.NO_VERTEX) {
-				grid.addEdge(current, neighbor);
-				grid.set(neighbor, VISITED);
-				stack.push(neighbor);
-				current = neighbor;
-			}
-			else {
-				grid.set(current, COMPLETED);
-				// Note: current = stack.pop() would also be correct. The following lines
-				// just give a better visualization.
-				current = stack.peek();
-				if (isCellCompleted(current)) {
-					stack.pop();
+	protected void generateMaze(int x, int y) {
+		stackCells = new int[1024];
+		stackDirs = new byte[1024];
+		int start = grid.cell(x, y);
+		setCellState(start, VISITED);
+		stackCells[0] = start;
+		stackDirs[0] = (byte) neighborhood.validDirs(start);
+		int top = 0;
+		while (top >= 0) {
+			int cell = stackCells[top];
+			// neighbors in the untried directions may have been visited by the search in the meantime
+			int dirs = 0;
+			for (int untried = stackDirs[top] & 0xFF; untried != 0; untried &= untried - 1) {
+				int dir = Integer.numberOfTrailingZeros(untried);
+				if (isCellUnvisited(neighborhood.neighbor(cell, dir))) {
+					dirs |= 1 << dir;
 				}
 			}
+			if (dirs == 0) {
+				showCellState(cell, COMPLETED);
+				--top;
+				continue;
+			}
+			int dir = randomDir(dirs);
+			stackDirs[top] = (byte) (dirs & ~(1 << dir));
+			int neighbor = neighborhood.neighbor(cell, dir);
+			grid.addEdge(cell, neighbor);
+			setCellState(neighbor, VISITED);
+			if (++top == stackCells.length) {
+				stackCells = Arrays.copyOf(stackCells, 2 * top);
+				stackDirs = Arrays.copyOf(stackDirs, 2 * top);
+			}
+			stackCells[top] = neighbor;
+			stackDirs[top] = (byte) (neighborhood.validDirs(neighbor) & ~(1 << neighborhood.opposite(dir)));
 		}
+		stackCells = null;
+		stackDirs = null;
 	}
-}
\ No newline at end of file
+}
@@ -1,18 +1,18 @@
 package de.amr.maze.alg.traversal;
 
-import static de.amr.datastruct.StreamUtils.permute;
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
 import static de.amr.graph.core.api.TraversalState.VISITED;
 
-import java.util.ArrayList;
-import java.util.List;
-
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.Frontier;
 import de.amr.maze.alg.core.MazeGenerator;
 
 /**
  * Maze generator based on a randomized breadth-first search.
+ * <p>
+ * The next cell is removed at random from a primitive {@link Frontier} in constant time, so the
+ * running time is linear in the number of cells.
  * 
  * @author Armin Reichert
  */
@@ -23,19 +23,22 @@ public class RandomBFS extends MazeGenerator {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
-		List<Integer> frontier = new ArrayList<>();
+	protected void generateMaze(int x, int y) {
+		Frontier frontier = new Frontier();
 		int start = grid.cell(x, y);
-		grid.set(start, VISITED);
+		setCellState(start, VISITED);
 		frontier.add(start);
 		while (!frontier.isEmpty()) {
-			int cell = frontier.remove(rnd.nextInt(frontier.size()));
-			grid.set(cell, COMPLETED);
-			permute(grid.neighbors(cell).filter(this::isCellUnvisited)).forEach(neighbor -> {
+			int cell = frontier.removeRandom(rnd);
+			showCellState(cell, COMPLETED);
+			for (int dirs = unvisitedNeighborDirs(cell); dirs != 0;) {
+				int dir = randomDir(dirs);
+				dirs &= ~(1 << dir);
+				int neighbor = neighborhood.neighbor(cell, dir);
 				grid.addEdge(cell, neighbor);
-				grid.set(neighbor, VISITED);
+				setCellState(neighbor, VISITED);
 				frontier.add(neighbor);
-			});
+			}
 		}
 	}
 }
\ No newline at end of file
@@ -1,18 +1,14 @@
 package de.amr.maze.alg.traversal;
 
-import static de.amr.datastruct.StreamUtils.randomElement;
-import static de.amr.graph.core.api.TraversalState.COMPLETED;
-import static de.amr.graph.core.api.TraversalState.VISITED;
-
-import java.util.Optional;
-
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.maze.alg.core.MazeGenerator;
 
 /**
- * Maze generator using randomized, recursive depth-first search. Not suited for larger grids
- * because of stack overflow.
+ * Maze generator using randomized depth-first search in the visiting order of the recursive
+ * formulation ("recursive backtracking").
+ * <p>
+ * The recursion runs on the explicit frame stack of {@link IterativeDFS}, so the generator is safe
+ * for large grids and does not overflow the call stack.
  * 
  * @author Armin Reichert
  * 
@@ -20,33 +16,9 @@ import de.amr.maze.alg.core.MazeGenerator;
  *      "http://weblog.jamisbuck.org/2010/12/27/maze-generation-recursive-backtracking">Maze
  *      Generation: Recursive Backtracking</a>
  */
-public class RecursiveDFS extends MazeGenerator {
+public class RecursiveDFS extends IterativeDFS {
 
 	public RecursiveDFS(GridGraph2D<TraversalState, Integer> grid) {
 		super(grid);
 	}
-
-	@Override
-	public void createMaze(int x, int y) {
-		createMazeFrom(grid.cell(x, y));
-	}
-
-	private void createMazeFrom(int cell) {
-		/*@formatter:off*/
-		grid.set(cell, VISITED);
-		for (Optional<Integer> unvisitedNeighbor = randomUnvisitedNeighbor(cell);
-				unvisitedNeighbor.isPresent(); 
-				unvisitedNeighbor = randomUnvisitedNeighbor(cell)) 
-		{
-			int neighbor = unvisitedNeighbor.get();
-			grid.addEdge(cell, neighbor);
-			createMazeFrom(neighbor);
-		}
-		grid.set(cell, COMPLETED);
-		/*@formatter:on*/
-	}
-
-	private Optional<Integer> randomUnvisitedNeighbor(int cell) {
-		return randomElement(grid.neighbors(cell).filter(this::isCellUnvisited));
-	}
-}
\ No newline at end of file
+}
@@ -1,11 +1,11 @@
 package de.amr.maze.alg.ust;
 
-import static de.amr.datastruct.StreamUtils.randomElement;
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
 import static de.amr.graph.core.api.TraversalState.VISITED;
 
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.GridNeighborhood;
 import de.amr.maze.alg.core.MazeGenerator;
 
 /**
@@ -34,40 +34,76 @@ public class AldousBroderUST extends MazeGenerator {
 
 	private int numVisitedCells;
 	private int currentCell;
+	private byte[] validDirs;
 
 	public AldousBroderUST(GridGraph2D<TraversalState, Integer> grid) {
 		super(grid);
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		run(grid.cell(x, y), grid.numVertices());
 	}
 
 	public void run(int start, int limit) {
+		validDirs = neighborhood.validDirsTable();
 		currentCell = start;
-		grid.set(currentCell, COMPLETED);
+		setCellState(currentCell, COMPLETED);
 		numVisitedCells = 1;
 		while (numVisitedCells < limit) {
 			visitRandomNeighbor();
 		}
 	}
 
+	/**
+	 * Runs the algorithm while it discovers new cells fast enough. The discovery rate is measured
+	 * over windows of steps in which about 64 new cells are expected at the limit rate. The run stops
+	 * when all cells are visited or when a window needed more than {@code maxStepsPerCell} steps per
+	 * newly visited cell.
+	 * 
+	 * @param start
+	 *                          start cell
+	 * @param maxStepsPerCell
+	 *                          maximum average number of steps per newly visited cell
+	 * @return number of visited cells
+	 */
+	public int runWhileProductive(int start, double maxStepsPerCell) {
+		validDirs = neighborhood.validDirsTable();
+		currentCell = start;
+		setCellState(currentCell, COMPLETED);
+		numVisitedCells = 1;
+		int limit = grid.numVertices();
+		long window = Math.max(64, Math.round(64 * maxStepsPerCell));
+		while (numVisitedCells < limit) {
+			int visitedBefore = numVisitedCells;
+			for (long step = 0; step < window && numVisitedCells < limit; ++step) {
+				visitRandomNeighbor();
+			}
+			if ((numVisitedCells - visitedBefore) * maxStepsPerCell < window) {
+				break;
+			}
+		}
+		return numVisitedCells;
+	}
+
 	/**
 	 * Visits a random neighbor of the current cell and adds it to the maze if visited for the first
 	 * time.
 	 */
 	private void visitRandomNeighbor() {
-		int neighbor = randomElement(grid.neighbors(currentCell)).get();
+		int dirs = validDirs[currentCell] & 0xFF;
+		int k = rnd.nextInt(Integer.bitCount(dirs));
+		int neighbor = currentCell + neighborhood.offset(GridNeighborhood.nthDir(dirs, k));
 		if (isCellUnvisited(neighbor)) {
 			grid.addEdge(currentCell, neighbor);
-			grid.set(neighbor, COMPLETED);
+			setCellState(neighbor, COMPLETED);
 			++numVisitedCells;
 		}
 		currentCell = neighbor;
-		// for animation only:
-		TraversalState state = grid.get(currentCell);
-		grid.set(currentCell, VISITED);
-		grid.set(currentCell, state);
+		if (!isHeadless()) {
+			// for animation only:
+			grid.set(currentCell, VISITED);
+			grid.set(currentCell, getCellState(currentCell));
+		}
 	}
 }
\ No newline at end of file
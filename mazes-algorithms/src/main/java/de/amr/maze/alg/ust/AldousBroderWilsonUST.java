@@ -1,16 +1,18 @@
 package de.amr.maze.alg.ust;
 
-import static de.amr.datastruct.StreamUtils.permute;
-
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
 import de.amr.maze.alg.core.MazeGenerator;
 
 /**
- * A hybrid algorithm ("Houston") that first uses Aldous/Broder until some fraction of cells is
- * visited and then switches to the Wilson algorithm.
+ * A hybrid algorithm ("Houston") that first uses Aldous/Broder and then switches to the Wilson
+ * algorithm for the remaining cells.
  * <p>
- * I cannot confirm that this algorithm runs faster than Wilson's.
+ * Aldous/Broder discovers new cells quickly at the beginning and gets slower and slower when most
+ * cells are visited, whereas Wilson's walks are long at the beginning and short when the tree is
+ * large. Instead of switching at a fixed fraction of visited cells, the discovery rate of
+ * Aldous/Broder is measured online and the algorithm switches to Wilson as soon as Aldous/Broder
+ * needs more than {@code switchCost} random walk steps per newly visited cell.
  * 
  * @see https://news.ycombinator.com/item?id=2123695
  * 
@@ -18,14 +20,48 @@ import de.amr.maze.alg.core.MazeGenerator;
  */
 public class AldousBroderWilsonUST extends MazeGenerator {
 
+	/**
+	 * Default switch cost, chosen by the benchmark in {@code LargeMazesTest}: best or close to best for
+	 * grids from 100x100 up to 1000x1000 cells with 4- and 8-neighborhood. Much smaller values switch
+	 * too early, while the Wilson walks are still long.
+	 */
+	public static final double DEFAULT_SWITCH_COST = 128;
+
+	private final double switchCost;
+	private int numCellsBeforeSwitch;
+
 	public AldousBroderWilsonUST(GridGraph2D<TraversalState, Integer> grid) {
+		this(grid, DEFAULT_SWITCH_COST);
+	}
+
+	/**
+	 * @param grid
+	 *                     grid
+	 * @param switchCost
+	 *                     number of Aldous/Broder steps per newly visited cell at which the algorithm
+	 *                     switches to Wilson
+	 */
+	public AldousBroderWilsonUST(GridGraph2D<TraversalState, Integer> grid, double switchCost) {
 		super(grid);
+		this.switchCost = switchCost;
+	}
+
+	public double getSwitchCost() {
+		return switchCost;
+	}
+
+	/**
+	 * @return number of cells visited by Aldous/Broder in the last run before switching to Wilson
+	 */
+	public int getNumCellsBeforeSwitch() {
+		return numCellsBeforeSwitch;
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
-		new AldousBroderUST(grid).run(grid.cell(x, y), Math.round(grid.numVertices() / 3.0f));
-		WilsonUSTRandomCell wilson = new WilsonUSTRandomCell(grid);
+	protected void generateMaze(int x, int y) {
+		numCellsBeforeSwitch = shareSettings(new AldousBroderUST(grid)).runWhileProductive(grid.cell(x, y),
+				switchCost);
+		WilsonUSTRandomCell wilson = shareSettings(new WilsonUSTRandomCell(grid));
 		permute(grid.vertices().filter(this::isCellUnvisited)).forEach(wilson::loopErasedRandomWalk);
 	}
-}
\ No newline at end of file
+}
@@ -1,13 +1,18 @@
 package de.amr.maze.alg.ust;
 
-import static de.amr.datastruct.StreamUtils.randomElement;
 import static de.amr.graph.core.api.TraversalState.COMPLETED;
 
-import java.util.stream.IntStream;
+import java.util.Arrays;
+import java.util.PrimitiveIterator;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
 
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.maze.alg.core.GridNeighborhood;
 import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.core.MazeRandom;
+import de.amr.maze.alg.core.ParallelLoop;
 
 /**
  * Wilson's algorithm.
@@ -19,6 +24,22 @@ import de.amr.maze.alg.core.MazeGenerator;
  * vertex and do loop-erased random walk until hitting this tree. Continue until the tree spans all
  * the vertices. It turns out that no matter which method you use to choose the starting vertices
  * you always end up with the same distribution on the spanning trees, namely the uniform one.
+ * <p>
+ * The random walk does not allocate: the valid directions of each cell are looked up in a table
+ * computed once per generator, and a direction is chosen by a single bounded random int.
+ * <p>
+ * If a pool is set, the walks started by {@link #runWilsonAlgorithm(int)} run speculatively in
+ * parallel: the walks of a batch run at the same time against the tree as it was at the start of
+ * the batch, and are then committed in start cell order. A walk that touched a cell added to the
+ * tree by an earlier commit of the batch is redone against the current tree. Each walk uses its own
+ * random stream determined by the seed and its position in the start cell order, so every committed
+ * walk is exactly the walk a sequential run with these streams would do. (A walk that is alone in
+ * its batch is not run speculatively and uses a faster generator seeded from its position.) The
+ * distribution stays uniform, and the maze depends only on the seed, not on the number of threads.
+ * A speculative walk only needs memory for the cells it touched. A batch grows the tree by about
+ * {@code 1 / BATCH_GROWTH_DIVISOR} of its size, so the first, long walks from a small tree run one
+ * after another (which limits the parallel speedup) and only the many short walks later on run in
+ * parallel.
  * 
  * @author Armin Reichert
  * 
@@ -31,28 +52,62 @@ import de.amr.maze.alg.core.MazeGenerator;
  */
 public abstract class WilsonUST extends MazeGenerator {
 
+	/** Maximum number of walks run speculatively at the same time. */
+	public static final int MAX_BATCH_SIZE = 1024;
+
+	/**
+	 * A batch of speculative walks is sized such that it adds about {@code 1 / BATCH_GROWTH_DIVISOR}
+	 * of the current tree size, estimated from the cells added per walk in the previous batch.
+	 */
+	public static final int BATCH_GROWTH_DIVISOR = 64;
+
 	private byte[] lastWalkDir;
-	private int current;
+	private byte[] validDirs;
+	private ForkJoinPool pool;
 
 	public WilsonUST(GridGraph2D<TraversalState, Integer> grid) {
 		super(grid);
 	}
 
+	public ForkJoinPool getPool() {
+		return pool;
+	}
+
+	/**
+	 * @param pool
+	 *               pool running the random walks in parallel or {@code null} for sequential walks
+	 */
+	public void setPool(ForkJoinPool pool) {
+		this.pool = pool;
+	}
+
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		runWilsonAlgorithm(grid.cell(x, y));
 	}
 
 	protected void runWilsonAlgorithm(int start) {
-		grid.set(start, COMPLETED);
-		randomWalkStartCells().forEach(this::loopErasedRandomWalk);
+		setCellState(start, COMPLETED);
+		PrimitiveIterator.OfInt startCells = randomWalkStartCells();
+		if (pool != null) {
+			runSpeculativeWalks(startCells);
+		}
+		else {
+			while (startCells.hasNext()) {
+				loopErasedRandomWalk(startCells.nextInt());
+			}
+		}
 	}
 
 	/**
-	 * @return stream of start cells for the random walks
+	 * Returns the start cells of the random walks. The cells are consumed one by one while the maze is
+	 * created, so sequences computed on demand (see {@link de.amr.maze.alg.core.CellSequences}) need
+	 * no memory for all cells. Every grid cell must be contained.
+	 * 
+	 * @return start cells for the random walks
 	 */
-	protected IntStream randomWalkStartCells() {
-		return grid.vertices();
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		return grid.vertices().iterator();
 	}
 
 	/**
@@ -63,30 +118,266 @@ public abstract class WilsonUST extends MazeGenerator {
 	 *                    the start cell of the random walk
 	 */
 	protected final void loopErasedRandomWalk(int walkStart) {
-		if (lastWalkDir == null) {
-			lastWalkDir = new byte[grid.numVertices()];
-		}
+		initTables();
 		// if walk start is already inside tree, do nothing
-		if (isCellCompleted(walkStart)) {
-			return;
+		if (!isCellCompleted(walkStart)) {
+			walkAndAdd(walkStart, rnd);
 		}
-		// do a random walk until it touches the tree created so far
-		current = walkStart;
+	}
+
+	/**
+	 * Does a random walk until it touches the tree and adds the loop-erased walk to the tree.
+	 * 
+	 * @return number of cells added to the tree
+	 */
+	private int walkAndAdd(int walkStart, Random walkRnd) {
+		int current = walkStart;
 		while (!isCellCompleted(current)) {
-			byte walkDir = randomElement(grid.getTopology().dirs()).get();
-			grid.neighbor(current, walkDir).ifPresent(neighbor -> {
-				lastWalkDir[current] = walkDir;
-				current = neighbor;
-			});
-		}
-		// add the (loop-erased) random walk to the tree
-		current = walkStart;
+			int dirs = validDirs[current] & 0xFF;
+			int walkDir = GridNeighborhood.nthDir(dirs, walkRnd.nextInt(Integer.bitCount(dirs)));
+			lastWalkDir[current] = (byte) walkDir;
+			current += neighborhood.offset(walkDir);
+		}
+		return addLoopErasedWalk(walkStart);
+	}
+
+	/**
+	 * Adds the loop-erased random walk recorded in the last walk directions to the tree.
+	 * 
+	 * @return number of cells added to the tree
+	 */
+	private int addLoopErasedWalk(int walkStart) {
+		int count = 0;
+		int current = walkStart;
 		while (!isCellCompleted(current)) {
-			grid.neighbor(current, lastWalkDir[current]).ifPresent(neighbor -> {
-				grid.set(current, COMPLETED);
-				grid.addEdge(current, neighbor);
-				current = neighbor;
-			});
+			int neighbor = current + neighborhood.offset(lastWalkDir[current]);
+			setCellState(current, COMPLETED);
+			grid.addEdge(current, neighbor);
+			current = neighbor;
+			++count;
+		}
+		return count;
+	}
+
+	private void initTables() {
+		if (validDirs == null) {
+			validDirs = neighborhood.validDirsTable();
+		}
+		if (lastWalkDir == null) {
+			lastWalkDir = new byte[grid.numVertices()];
+		}
+	}
+
+	/*
+	 * Speculative parallel walks. The tree cells are only read while walks run in parallel and only
+	 * written while committing, so no synchronization beyond the fork/join barrier is needed.
+	 */
+
+	private void runSpeculativeWalks(PrimitiveIterator.OfInt startCells) {
+		initTables();
+		long seed = rnd.nextLong();
+		Walk[] walks = new Walk[MAX_BATCH_SIZE];
+		int[] batchCells = new int[MAX_BATCH_SIZE];
+		int[] batch = new int[MAX_BATCH_SIZE]; // positions in start cell order
+		int treeSize = 1, next = 0, cellsPerWalk = Integer.MAX_VALUE;
+		while (startCells.hasNext()) {
+			/*
+			 * The batch may grow the tree by about 1 / BATCH_GROWTH_DIVISOR of its size. The more tree cells
+			 * there are, the shorter the walks and the fewer cells each walk adds, so batches get larger.
+			 */
+			long batchSize = treeSize / ((long) BATCH_GROWTH_DIVISOR * cellsPerWalk);
+			batchSize = Math.min(MAX_BATCH_SIZE, Math.max(1, batchSize));
+			int n = 0;
+			while (n < batchSize && startCells.hasNext()) {
+				int cell = startCells.nextInt();
+				if (!isCellCompleted(cell)) {
+					batchCells[n] = cell;
+					batch[n++] = next;
+				}
+				++next;
+			}
+			for (int i = 0; i < n; ++i) {
+				if (walks[i] == null) {
+					walks[i] = new Walk();
+				}
+			}
+			int numWalks = n;
+			if (numWalks > 1) {
+				ParallelLoop.forRange(pool, 0, numWalks, 1, (from, to) -> {
+					for (int i = from; i < to; ++i) {
+						walks[i].run(batchCells[i], MazeRandom.hash(seed, batch[i]));
+					}
+				});
+			}
+			int committed = 0, added = 0;
+			for (int i = 0; i < numWalks; ++i) {
+				Walk walk = walks[i];
+				int walkStart = batchCells[i];
+				if (isCellCompleted(walkStart)) {
+					continue;
+				}
+				long walkSeed = MazeRandom.hash(seed, batch[i]);
+				int cells;
+				if (numWalks == 1) {
+					// not speculative, any stream determined by the seed will do
+					cells = walkAndAdd(walkStart, MazeRandom.xoshiro(walkSeed));
+				}
+				else if (!walk.isValid()) {
+					// redo with the same stream, so the committed walk does not depend on the speculation
+					cells = walkAndAdd(walkStart, walkSeed);
+				}
+				else {
+					cells = walk.commit();
+				}
+				treeSize += cells;
+				added += cells;
+				++committed;
+			}
+			if (committed > 0) {
+				cellsPerWalk = Math.max(1, (added + committed - 1) / committed);
+			}
+		}
+	}
+
+	/**
+	 * Does the same walk as {@link Walk#run(int, long)}, but records it in the last walk directions of
+	 * the cells, and adds it to the tree.
+	 * 
+	 * @return number of cells added to the tree
+	 */
+	private int walkAndAdd(int walkStart, long walkSeed) {
+		int current = walkStart;
+		for (long step = 0; !isCellCompleted(current); ++step) {
+			int dirs = validDirs[current] & 0xFF;
+			int walkDir = GridNeighborhood.nthDir(dirs, MazeRandom.hash(walkSeed, step, Integer.bitCount(dirs)));
+			lastWalkDir[current] = (byte) walkDir;
+			current += neighborhood.offset(walkDir);
+		}
+		return addLoopErasedWalk(walkStart);
+	}
+
+	/**
+	 * A speculative random walk: the distinct cells it touched and its loop-erased path. The direction
+	 * in which the walk left each touched cell last is kept in an open addressing table, so a walk only
+	 * needs memory for the cells it touched.
+	 */
+	private class Walk {
+
+		private static final int FREE = -1;
+		private static final int MAX_IDLE_CAPACITY = 1 << 12;
+
+		private int[] cells = newTable(16); // hash table of the touched cells
+		private byte[] exitDirs = new byte[16]; // last direction of the walk from the touched cells
+		private int[] touched = new int[8]; // table slots of the touched cells
+		private int[] path = new int[8]; // loop-erased path, ends with the tree cell hit by the walk
+		private int numTouched;
+		private int pathLength;
+
+		void run(int walkStart, long walkSeed) {
+			clear();
+			int current = walkStart;
+			for (long step = 0; !isCellCompleted(current); ++step) {
+				int dirs = validDirs[current] & 0xFF;
+				int walkDir = GridNeighborhood.nthDir(dirs, MazeRandom.hash(walkSeed, step, Integer.bitCount(dirs)));
+				int slot = slot(current); // may grow the table
+				exitDirs[slot] = (byte) walkDir;
+				current += neighborhood.offset(walkDir);
+			}
+			pathLength = 0;
+			current = walkStart;
+			while (!isCellCompleted(current)) {
+				path = append(path, pathLength++, current);
+				current += neighborhood.offset(exitDirs[slot(current)]);
+			}
+			path = append(path, pathLength++, current);
+		}
+
+		private void clear() {
+			if (cells.length > MAX_IDLE_CAPACITY) {
+				cells = newTable(16);
+				exitDirs = new byte[16];
+				touched = new int[8];
+				path = new int[8];
+			}
+			else {
+				for (int i = 0; i < numTouched; ++i) {
+					cells[touched[i]] = FREE;
+				}
+			}
+			numTouched = 0;
+		}
+
+		/**
+		 * @return table slot of the cell, the cell is added if it is not yet contained
+		 */
+		private int slot(int cell) {
+			int mask = cells.length - 1;
+			int slot = (cell * 0x9E3779B9) & mask;
+			while (cells[slot] != cell) {
+				if (cells[slot] == FREE) {
+					if (2 * (numTouched + 1) > cells.length) {
+						rehash();
+						return slot(cell);
+					}
+					cells[slot] = cell;
+					touched = append(touched, numTouched++, slot);
+					return slot;
+				}
+				slot = (slot + 1) & mask;
+			}
+			return slot;
+		}
+
+		private void rehash() {
+			int[] oldCells = cells;
+			byte[] oldDirs = exitDirs;
+			int[] oldTouched = Arrays.copyOf(touched, numTouched);
+			cells = newTable(2 * oldCells.length);
+			exitDirs = new byte[2 * oldCells.length];
+			numTouched = 0;
+			for (int oldSlot : oldTouched) {
+				int slot = slot(oldCells[oldSlot]);
+				exitDirs[slot] = oldDirs[oldSlot];
+			}
+		}
+
+		private int[] newTable(int capacity) {
+			int[] table = new int[capacity];
+			Arrays.fill(table, FREE);
+			return table;
+		}
+
+		/**
+		 * @return {@code true} if no touched cell was added to the tree after the walk was done
+		 */
+		boolean isValid() {
+			for (int i = 0; i < numTouched; ++i) {
+				if (isCellCompleted(cells[touched[i]])) {
+					return false;
+				}
+			}
+			return true;
+		}
+
+		/**
+		 * Adds the loop-erased walk to the tree.
+		 * 
+		 * @return number of cells added to the tree
+		 */
+		int commit() {
+			for (int i = 0; i < pathLength - 1; ++i) {
+				setCellState(path[i], COMPLETED);
+				grid.addEdge(path[i], path[i + 1]);
+			}
+			return pathLength - 1;
+		}
+
+		private int[] append(int[] cells, int size, int cell) {
+			if (size == cells.length) {
+				cells = Arrays.copyOf(cells, 2 * size);
+			}
+			cells[size] = cell;
+			return cells;
 		}
 	}
-}
\ No newline at end of file
+}
@@ -1,12 +1,13 @@
 package de.amr.maze.alg.ust;
 
-import static de.amr.graph.core.api.TraversalState.COMPLETED;
 import static de.amr.graph.grid.api.GridPosition.CENTER;
 import static java.lang.Math.max;
 
+import java.util.PrimitiveIterator;
+
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.shapes.Circle;
+import de.amr.maze.alg.core.CellSequences;
 
 /**
  * Wilson's algorithm where the vertices are selected from a collapsing circle.
@@ -20,11 +21,17 @@ public class WilsonUSTCollapsingCircle extends WilsonUST {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
+		runWilsonAlgorithm(grid.cell(CENTER));
+	}
+
+	@Override
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
 		int center = grid.cell(CENTER);
-		grid.set(center, COMPLETED);
-		for (int r = max(grid.numRows(), grid.numCols()) - 1; r > 0; r--) {
-			new Circle(grid, center, r).forEach(this::loopErasedRandomWalk);
+		PrimitiveIterator.OfInt[] circles = new PrimitiveIterator.OfInt[max(grid.numRows(), grid.numCols())];
+		for (int i = 0; i < circles.length; ++i) {
+			circles[i] = CellSequences.circle(neighborhood, center, circles.length - i);
 		}
+		return CellSequences.sequence(circles);
 	}
-}
\ No newline at end of file
+}
@@ -1,11 +1,14 @@
 package de.amr.maze.alg.ust;
 
-import static de.amr.graph.core.api.TraversalState.COMPLETED;
 import static de.amr.graph.grid.api.GridPosition.CENTER;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.PrimitiveIterator;
+
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.shapes.Rectangle;
+import de.amr.maze.alg.core.CellSequences;
 
 /**
  * Wilson's algorithm where the vertices are selected from a collapsing rectangle.
@@ -19,17 +22,22 @@ public class WilsonUSTCollapsingRectangle extends WilsonUST {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
-		int start = grid.cell(CENTER);
-		grid.set(start, COMPLETED);
+	protected void generateMaze(int x, int y) {
+		runWilsonAlgorithm(grid.cell(CENTER));
+	}
+
+	@Override
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		List<PrimitiveIterator.OfInt> rectangles = new ArrayList<>();
 		int col = 0, row = 0;
 		int width = grid.numCols(), height = grid.numRows();
 		while (width > 0 && height > 0) {
-			new Rectangle(grid, grid.cell(col, row), width, height).forEach(this::loopErasedRandomWalk);
+			rectangles.add(CellSequences.rectangle(neighborhood, col, row, width, height));
 			width -= 2;
 			height -= 2;
 			col += 1;
 			row += 1;
 		}
+		return CellSequences.sequence(rectangles.toArray(new PrimitiveIterator.OfInt[rectangles.size()]));
 	}
-}
\ No newline at end of file
+}
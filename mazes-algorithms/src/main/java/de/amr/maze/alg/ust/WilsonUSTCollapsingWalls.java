@@ -1,11 +1,10 @@
 package de.amr.maze.alg.ust;
 
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
-import de.amr.datastruct.StreamUtils;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.traversals.CollapsingWalls;
+import de.amr.maze.alg.core.CellSequences;
 
 /**
  * Wilson's algorithm where the vertices are selected alternating left-to-right and right-to-left
@@ -20,7 +19,7 @@ public class WilsonUSTCollapsingWalls extends WilsonUST {
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		return StreamUtils.toIntStream(new CollapsingWalls(grid));
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		return CellSequences.collapsingWalls(neighborhood);
 	}
 }
\ No newline at end of file
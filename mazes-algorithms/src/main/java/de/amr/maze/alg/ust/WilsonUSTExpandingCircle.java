@@ -2,16 +2,18 @@ package de.amr.maze.alg.ust;
 
 import static de.amr.graph.grid.api.GridPosition.CENTER;
 import static java.lang.Math.max;
+import static java.util.Arrays.stream;
 
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
-import de.amr.datastruct.StreamUtils;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.traversals.ExpandingCircle;
+import de.amr.maze.alg.core.CellSequences;
 
 /**
  * Wilson's algorithm where the vertices are selected from an expanding circle.
+ * <p>
+ * The circle order is kept in the topology cache.
  * 
  * @author Armin Reichert
  */
@@ -22,13 +24,15 @@ public class WilsonUSTExpandingCircle extends WilsonUST {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		runWilsonAlgorithm(grid.cell(CENTER));
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		return StreamUtils.toIntStream(
-				new ExpandingCircle(grid, grid.cell(CENTER), 1, max(grid.numCols(), grid.numRows())));
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		int radius = max(grid.numCols(), grid.numRows());
+		int[] cells = getTopologyCache().getCells("expanding-circle", neighborhood, () -> CellSequences
+				.toArray(CellSequences.expandingCircle(neighborhood, grid.cell(CENTER), 1, radius)));
+		return stream(cells).iterator();
 	}
-}
\ No newline at end of file
+}
@@ -1,20 +1,21 @@
 package de.amr.maze.alg.ust;
 
 import static de.amr.graph.grid.api.GridPosition.CENTER;
-import static de.amr.graph.grid.iterators.IteratorFactory.parallel;
-import static de.amr.graph.grid.iterators.IteratorFactory.sequence;
+import static de.amr.maze.alg.core.CellSequences.parallel;
+import static de.amr.maze.alg.core.CellSequences.sequence;
 import static java.lang.Math.max;
+import static java.util.Arrays.stream;
 
-import java.util.Iterator;
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
-import de.amr.datastruct.StreamUtils;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.traversals.ExpandingCircle;
+import de.amr.maze.alg.core.CellSequences;
 
 /**
  * Wilson's algorithm where grid cells are selected from five expanding circles.
+ * <p>
+ * The cell order is kept in the topology cache.
  * 
  * @author Armin Reichert
  */
@@ -25,46 +26,44 @@ public class WilsonUSTExpandingCircles extends WilsonUST {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		runWilsonAlgorithm(grid.cell(CENTER));
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		Iterable<Integer> it = new Iterable<Integer>() {
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		int[] cells = getTopologyCache().getCells("expanding-circles", neighborhood,
+				() -> CellSequences.toArray(circles()));
+		return stream(cells).iterator();
+	}
 
-			@Override
-			public Iterator<Integer> iterator() {
-				int w = grid.numCols(), h = grid.numRows(), r = max(w / 2, h / 2);
-				/*@formatter:off*/
-				return sequence(
-					// expand 4 circles in parallel to certain size	
-					parallel(
-						expandingCircle(grid, w / 4, h / 4, 1, r / 4),
-						expandingCircle(grid, 3 * w / 4, h / 4, 1, r / 4),
-						expandingCircle(grid, w / 4, 3 * h / 4, 1, r / 4), 
-						expandingCircle(grid, 3 * w / 4, 3 * h / 4, 1, r / 4)
-					),
-					// expand 5th circle to half its size
-					expandingCircle(grid, w / 2, h / 2, 1, r / 2),
-					// expand first 4 circles to final size
-					parallel(
-						expandingCircle(grid, w / 4, h / 4, r / 4, r / 2),
-						expandingCircle(grid, 3 * w / 4, h / 4, r / 4, r / 2), 
-						expandingCircle(grid, w / 4, 3 * h / 4, r / 4, r / 2),
-						expandingCircle(grid, 3 * w / 4, 3 * h / 4, r / 4, r / 2)
-					),
-					// expand 5th circle to final size
-					expandingCircle(grid, w / 2, h / 2, r / 2, 2 * r)
-				);
-				/*@formatter:on*/
-			}
-		};
-		return StreamUtils.toIntStream(it);
+	private PrimitiveIterator.OfInt circles() {
+		int w = grid.numCols(), h = grid.numRows(), r = max(w / 2, h / 2);
+		/*@formatter:off*/
+		return sequence(
+			// expand 4 circles in parallel to certain size	
+			parallel(
+				expandingCircle(w / 4, h / 4, 1, r / 4),
+				expandingCircle(3 * w / 4, h / 4, 1, r / 4),
+				expandingCircle(w / 4, 3 * h / 4, 1, r / 4), 
+				expandingCircle(3 * w / 4, 3 * h / 4, 1, r / 4)
+			),
+			// expand 5th circle to half its size
+			expandingCircle(w / 2, h / 2, 1, r / 2),
+			// expand first 4 circles to final size
+			parallel(
+				expandingCircle(w / 4, h / 4, r / 4, r / 2),
+				expandingCircle(3 * w / 4, h / 4, r / 4, r / 2), 
+				expandingCircle(w / 4, 3 * h / 4, r / 4, r / 2),
+				expandingCircle(3 * w / 4, 3 * h / 4, r / 4, r / 2)
+			),
+			// expand 5th circle to final size
+			expandingCircle(w / 2, h / 2, r / 2, 2 * r)
+		);
+		/*@formatter:on*/
 	}
 
-	private Iterator<Integer> expandingCircle(GridGraph2D<TraversalState, Integer> grid, int centerX,
-			int centerY, int rmin, int rmax) {
-		return new ExpandingCircle(grid, grid.cell(centerX, centerY), rmin, rmax).iterator();
+	private PrimitiveIterator.OfInt expandingCircle(int centerX, int centerY, int rmin, int rmax) {
+		return CellSequences.expandingCircle(neighborhood, grid.cell(centerX, centerY), rmin, rmax);
 	}
-}
\ No newline at end of file
+}
@@ -1,14 +1,13 @@
 package de.amr.maze.alg.ust;
 
 import static de.amr.graph.grid.api.GridPosition.TOP_LEFT;
+import static java.lang.Math.max;
 
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
-import de.amr.datastruct.StreamUtils;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.shapes.Rectangle;
-import de.amr.graph.grid.traversals.ExpandingRectangle;
+import de.amr.maze.alg.core.CellSequences;
 
 /**
  * Wilson's algorithm where the vertices are selected from an expanding rectangle.
@@ -22,17 +21,13 @@ public class WilsonUSTExpandingRectangle extends WilsonUST {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		runWilsonAlgorithm(grid.cell(TOP_LEFT));
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		Rectangle startRect = new Rectangle(grid, grid.cell(TOP_LEFT), 1, 1);
-		ExpandingRectangle expRect = new ExpandingRectangle(startRect);
-		expRect.setExpandHorizontally(true);
-		expRect.setExpandVertically(true);
-		expRect.setMaxExpansion(grid.numCols() - 1);
-		return StreamUtils.toIntStream(expRect);
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		return CellSequences.expandingRectangle(neighborhood, 1, 1, 1,
+				max(grid.numCols(), grid.numRows()) - 1, true, true);
 	}
 }
\ No newline at end of file
@@ -2,12 +2,11 @@ package de.amr.maze.alg.ust;
 
 import static de.amr.graph.grid.api.GridPosition.CENTER;
 
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
-import de.amr.datastruct.StreamUtils;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.traversals.Spiral;
+import de.amr.maze.alg.core.CellSequences;
 
 /**
  * Wilson's algorithm where the vertices are selected from an expanding spiral.
@@ -21,12 +20,12 @@ public class WilsonUSTExpandingSpiral extends WilsonUST {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		runWilsonAlgorithm(grid.cell(CENTER));
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		return StreamUtils.toIntStream(new Spiral(grid, grid.cell(CENTER)));
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		return CellSequences.spiral(neighborhood, grid.cell(CENTER));
 	}
 }
\ No newline at end of file
@@ -1,27 +1,20 @@
 package de.amr.maze.alg.ust;
 
-import static de.amr.graph.core.api.TraversalState.UNVISITED;
-import static de.amr.graph.grid.api.GridPosition.TOP_LEFT;
-import static de.amr.graph.grid.impl.GridFactory.emptyGrid;
-import static de.amr.graph.grid.impl.Grid4Topology.E;
-import static de.amr.graph.grid.impl.Grid4Topology.N;
-import static de.amr.graph.grid.impl.Grid4Topology.S;
-import static de.amr.graph.grid.impl.Grid4Topology.W;
-import static de.amr.graph.util.GraphUtils.log;
 import static de.amr.graph.util.GraphUtils.nextPow;
 import static java.lang.Math.max;
 import static java.util.Arrays.stream;
 
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.curves.HilbertCurve;
-import de.amr.graph.grid.impl.GridGraph;
-import de.amr.graph.grid.impl.Grid4Topology;
+import de.amr.maze.alg.core.SpaceFillingCurves;
 
 /**
  * Wilson's algorithm where the random walk start cells are defined by a Hilbert curve.
+ * <p>
+ * The curve order is computed directly from the curve indices (see {@link SpaceFillingCurves}), in
+ * parallel if a pool is set, and kept in the topology cache.
  * 
  * @author Armin Reichert
  */
@@ -32,20 +25,11 @@ public class WilsonUSTHilbertCurve extends WilsonUST {
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		int[] cells = new int[grid.numVertices()];
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
 		int n = nextPow(2, max(grid.numCols(), grid.numRows()));
-		GridGraph<?, ?> squareGrid = emptyGrid(n, n, Grid4Topology.get(), UNVISITED, 0);
-		int cell = squareGrid.cell(TOP_LEFT);
-		int i = 0;
-		cells[i++] = cell;
-		for (byte dir : new HilbertCurve(log(2, n), W, N, E, S)) {
-			cell = squareGrid.neighbor(cell, dir).get();
-			int col = squareGrid.col(cell), row = squareGrid.row(cell);
-			if (grid.isValidCol(col) && grid.isValidRow(row)) {
-				cells[i++] = grid.cell(col, row);
-			}
-		}
-		return stream(cells);
+		int[] cells = getTopologyCache().getCells("hilbert-curve", neighborhood,
+				() -> SpaceFillingCurves.cells(SpaceFillingCurves::hilbert, n, grid.numCols(), grid.numRows(),
+						getPool()));
+		return stream(cells).iterator();
 	}
-}
\ No newline at end of file
+}
@@ -2,12 +2,11 @@ package de.amr.maze.alg.ust;
 
 import static de.amr.graph.grid.api.GridPosition.TOP_LEFT;
 
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
-import de.amr.datastruct.StreamUtils;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.traversals.LeftToRightSweep;
+import de.amr.maze.alg.core.CellSequences;
 
 /**
  * Wilson's algorithm where the vertices are selected column-wise left-to-right.
@@ -21,12 +20,12 @@ public class WilsonUSTLeftToRightSweep extends WilsonUST {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		runWilsonAlgorithm(grid.cell(TOP_LEFT));
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		return StreamUtils.toIntStream(new LeftToRightSweep(grid));
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		return CellSequences.leftToRightSweep(neighborhood);
 	}
 }
\ No newline at end of file
@@ -1,21 +1,20 @@
 package de.amr.maze.alg.ust;
 
-import static de.amr.graph.core.api.TraversalState.UNVISITED;
-import static de.amr.graph.grid.impl.GridFactory.emptyGrid;
-import static de.amr.graph.util.GraphUtils.log;
 import static de.amr.graph.util.GraphUtils.nextPow;
 import static java.lang.Math.max;
 import static java.util.Arrays.stream;
 
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.curves.MooreLCurve;
-import de.amr.graph.grid.impl.Grid4Topology;
+import de.amr.maze.alg.core.SpaceFillingCurves;
 
 /**
  * Wilson's algorithm where the random walks start cells are defined by a Moore curve.
+ * <p>
+ * The curve order is computed directly from the curve indices (see {@link SpaceFillingCurves}), in
+ * parallel if a pool is set, and kept in the topology cache.
  * 
  * @author Armin Reichert
  */
@@ -26,22 +25,11 @@ public class WilsonUSTMooreCurve extends WilsonUST {
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		int[] cells = new int[grid.numVertices()];
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
 		int n = nextPow(2, max(grid.numCols(), grid.numRows()));
-		GridGraph2D<?, ?> squareGrid = emptyGrid(n, n, Grid4Topology.get(), UNVISITED, 0);
-		int cell = squareGrid.cell(n / 2, n - 1);
-		int i = 0;
-		if (grid.isValidCol(n / 2) && grid.isValidRow(n - 1)) {
-			cells[i++] = grid.cell(n / 2, n - 1);
-		}
-		for (byte dir : new MooreLCurve(log(2, n))) {
-			cell = squareGrid.neighbor(cell, dir).get();
-			int col = squareGrid.col(cell), row = squareGrid.row(cell);
-			if (grid.isValidCol(col) && grid.isValidRow(row)) {
-				cells[i++] = grid.cell(col, row);
-			}
-		}
-		return stream(cells);
+		int[] cells = getTopologyCache().getCells("moore-curve", neighborhood,
+				() -> SpaceFillingCurves.cells(SpaceFillingCurves::moore, n, grid.numCols(), grid.numRows(),
+						getPool()));
+		return stream(cells).iterator();
 	}
-}
\ No newline at end of file
+}
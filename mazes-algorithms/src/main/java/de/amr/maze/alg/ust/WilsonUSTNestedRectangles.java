@@ -3,16 +3,12 @@ package de.amr.maze.alg.ust;
 import static de.amr.graph.grid.api.GridPosition.TOP_LEFT;
 
 import java.util.ArrayList;
-import java.util.Iterator;
 import java.util.List;
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
-import de.amr.datastruct.StreamUtils;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.iterators.IteratorFactory;
-import de.amr.graph.grid.shapes.Rectangle;
-import de.amr.graph.grid.traversals.ExpandingRectangle;
+import de.amr.maze.alg.core.CellSequences;
 
 /**
  * Wilson's algorithm where the vertices are selected from a sequence of nested rectangles.
@@ -26,45 +22,19 @@ public class WilsonUSTNestedRectangles extends WilsonUST {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		runWilsonAlgorithm(grid.cell(TOP_LEFT));
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		Iterable<Integer> it = new Iterable<Integer>() {
-
-			@Override
-			public Iterator<Integer> iterator() {
-				Rectangle firstCell = new Rectangle(grid, grid.cell(TOP_LEFT), 1, 1);
-				List<Iterator<Integer>> expRects = new ArrayList<>();
-				int rate = grid.numCols();
-				while (rate > 1) {
-					expRects.add(expandingRectangle(firstCell, rate).iterator());
-					rate /= 2;
-				}
-				@SuppressWarnings("unchecked")
-				Iterator<Integer>[] expRectsArray = expRects.toArray(new Iterator[expRects.size()]);
-
-				Rectangle firstColumn = new Rectangle(grid, grid.cell(TOP_LEFT), 1, grid.numRows());
-				ExpandingRectangle sweep = new ExpandingRectangle(firstColumn);
-				sweep.setExpandHorizontally(true);
-				sweep.setExpandVertically(false);
-				sweep.setExpansionRate(1);
-				sweep.setMaxExpansion(grid.numCols());
-
-				return IteratorFactory.sequence(IteratorFactory.sequence(expRectsArray), sweep.iterator());
-			}
-		};
-		return StreamUtils.toIntStream(it);
-	}
-
-	private ExpandingRectangle expandingRectangle(Rectangle startRectangle, int rate) {
-		ExpandingRectangle expRect = new ExpandingRectangle(startRectangle);
-		expRect.setExpandHorizontally(true);
-		expRect.setExpandVertically(true);
-		expRect.setExpansionRate(rate);
-		expRect.setMaxExpansion(grid.numCols() - startRectangle.getWidth());
-		return expRect;
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		int numCols = grid.numCols(), numRows = grid.numRows();
+		List<PrimitiveIterator.OfInt> expRects = new ArrayList<>();
+		for (int rate = numCols; rate > 1; rate /= 2) {
+			expRects.add(CellSequences.expandingRectangle(neighborhood, 1, 1, rate, numCols - 1, true, true));
+		}
+		// finally sweep the columns from left to right
+		expRects.add(CellSequences.expandingRectangle(neighborhood, 1, numRows, 1, numCols - 1, true, false));
+		return CellSequences.sequence(expRects.toArray(new PrimitiveIterator.OfInt[expRects.size()]));
 	}
-}
\ No newline at end of file
+}
@@ -1,51 +1,35 @@
 package de.amr.maze.alg.ust;
 
-import static de.amr.graph.core.api.TraversalState.UNVISITED;
-import static de.amr.graph.grid.api.GridPosition.BOTTOM_LEFT;
-import static de.amr.graph.grid.impl.GridFactory.emptyGrid;
-import static de.amr.graph.util.GraphUtils.log;
 import static de.amr.graph.util.GraphUtils.nextPow;
 import static java.lang.Math.max;
 import static java.util.Arrays.stream;
 
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.curves.PeanoCurve;
-import de.amr.graph.grid.impl.Grid4Topology;
+import de.amr.maze.alg.core.SpaceFillingCurves;
 
 /**
  * Wilson's algorithm where the random walks start in the order defined by a Peano curve.
+ * <p>
+ * The curve order is computed directly from the curve indices (see {@link SpaceFillingCurves}), in
+ * parallel if a pool is set, and kept in the topology cache.
  * 
  * @author Armin Reichert
  */
 public class WilsonUSTPeanoCurve extends WilsonUST {
 
-	private int i;
-	private int[] walkStartCells;
-
 	public WilsonUSTPeanoCurve(GridGraph2D<TraversalState, Integer> grid) {
 		super(grid);
-		walkStartCells = new int[grid.numVertices()];
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
 		int n = nextPow(3, max(grid.numCols(), grid.numRows()));
-		GridGraph2D<?, ?> squareGrid = emptyGrid(n, n, Grid4Topology.get(), UNVISITED, 0);
-		int cell = squareGrid.cell(BOTTOM_LEFT);
-		addCell(squareGrid.col(cell), squareGrid.row(cell));
-		for (byte dir : new PeanoCurve(log(3, n))) {
-			cell = squareGrid.neighbor(cell, dir).get();
-			addCell(squareGrid.col(cell), squareGrid.row(cell));
-		}
-		return stream(walkStartCells);
-	}
-
-	private void addCell(int col, int row) {
-		if (grid.isValidCol(col) && grid.isValidRow(row)) {
-			walkStartCells[i++] = grid.cell(col, row);
-		}
+		int[] cells = getTopologyCache().getCells("peano-curve", neighborhood,
+				() -> SpaceFillingCurves.cells(SpaceFillingCurves::peano, n, grid.numCols(), grid.numRows(),
+						getPool()));
+		return stream(cells).iterator();
 	}
-}
\ No newline at end of file
+}
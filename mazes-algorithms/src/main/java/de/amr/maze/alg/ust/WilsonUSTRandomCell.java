@@ -1,8 +1,6 @@
 package de.amr.maze.alg.ust;
 
-import static de.amr.datastruct.StreamUtils.permute;
-
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
@@ -19,7 +17,7 @@ public class WilsonUSTRandomCell extends WilsonUST {
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		return permute(grid.vertices());
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		return permute(grid.vertices()).iterator();
 	}
 }
\ No newline at end of file
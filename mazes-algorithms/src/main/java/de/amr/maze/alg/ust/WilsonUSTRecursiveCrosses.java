@@ -1,14 +1,17 @@
 package de.amr.maze.alg.ust;
 
-import java.util.stream.IntStream;
+import static java.util.Arrays.stream;
+
+import java.util.PrimitiveIterator;
 
-import de.amr.datastruct.StreamUtils;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.traversals.RecursiveCrosses;
+import de.amr.maze.alg.core.CellSequences;
 
 /**
  * Wilson's algorithm where the vertices are selected from recursive crosses.
+ * <p>
+ * The cell order is kept in the topology cache.
  * 
  * @author Armin Reichert
  */
@@ -19,7 +22,9 @@ public class WilsonUSTRecursiveCrosses extends WilsonUST {
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		return StreamUtils.toIntStream(new RecursiveCrosses(grid));
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		int[] cells = getTopologyCache().getCells("recursive-crosses", neighborhood,
+				() -> CellSequences.toArray(CellSequences.recursiveCrosses(neighborhood)));
+		return stream(cells).iterator();
 	}
-}
\ No newline at end of file
+}
@@ -2,12 +2,11 @@ package de.amr.maze.alg.ust;
 
 import static de.amr.graph.grid.api.GridPosition.BOTTOM_RIGHT;
 
-import java.util.stream.IntStream;
+import java.util.PrimitiveIterator;
 
-import de.amr.datastruct.StreamUtils;
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
-import de.amr.graph.grid.traversals.RightToLeftSweep;
+import de.amr.maze.alg.core.CellSequences;
 
 /**
  * Wilson's algorithm where the vertices are selected column-wise left-to-right.
@@ -21,12 +20,12 @@ public class WilsonUSTRightToLeftSweep extends WilsonUST {
 	}
 
 	@Override
-	public void createMaze(int x, int y) {
+	protected void generateMaze(int x, int y) {
 		runWilsonAlgorithm(grid.cell(BOTTOM_RIGHT));
 	}
 
 	@Override
-	protected IntStream randomWalkStartCells() {
-		return StreamUtils.toIntStream(new RightToLeftSweep(grid));
+	protected PrimitiveIterator.OfInt randomWalkStartCells() {
+		return CellSequences.rightToLeftSweep(neighborhood);
 	}
 }
\ No newline at end of file
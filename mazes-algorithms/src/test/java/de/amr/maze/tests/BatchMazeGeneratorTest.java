@@ -0,0 +1,163 @@
+package de.amr.maze.tests;
+
+import static java.lang.String.format;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import de.amr.graph.core.api.TraversalState;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.graph.grid.impl.Grid4Topology;
+import de.amr.graph.grid.impl.GridFactory;
+import de.amr.graph.pathfinder.util.GraphSearchUtils;
+import de.amr.graph.util.GraphUtils;
+import de.amr.maze.alg.batch.BatchAlgorithm;
+import de.amr.maze.alg.batch.BatchMazeGenerator;
+import de.amr.maze.alg.batch.MazeBatch;
+import de.amr.maze.alg.core.GridNeighborhood;
+import de.amr.maze.alg.core.TopologyCache;
+import de.amr.util.StopWatch;
+
+public class BatchMazeGeneratorTest {
+
+	private static final int WIDTH = 25;
+	private static final int HEIGHT = 25;
+	private static final int NUM_MAZES = 10_000;
+
+	private static void assertSpanningTree(MazeBatch batch, int maze) {
+		GridNeighborhood nh = batch.getNeighborhood();
+		assertEquals("Wrong number of passages", nh.numCells() - 1, batch.numPassages(maze));
+		// with n - 1 edges, a connected graph is a tree
+		boolean[] reached = new boolean[nh.numCells()];
+		int[] queue = new int[nh.numCells()];
+		int head = 0, tail = 0;
+		queue[tail++] = 0;
+		reached[0] = true;
+		while (head < tail) {
+			int cell = queue[head++];
+			for (int dir = 0; dir < nh.dirCount(); ++dir) {
+				if (batch.isPassage(maze, cell, dir)) {
+					int neighbor = nh.neighbor(cell, dir);
+					if (!reached[neighbor]) {
+						reached[neighbor] = true;
+						queue[tail++] = neighbor;
+					}
+				}
+			}
+		}
+		assertEquals("Disconnected", nh.numCells(), tail);
+	}
+
+	private static int[] contents(MazeBatch batch) {
+		int n = batch.getNeighborhood().numCells();
+		int[] contents = new int[batch.numMazes() * n];
+		for (int maze = 0; maze < batch.numMazes(); ++maze) {
+			for (int cell = 0; cell < n; ++cell) {
+				contents[maze * n + cell] = batch.passages(maze, cell);
+			}
+		}
+		return contents;
+	}
+
+	private void test(BatchAlgorithm algorithm, GridNeighborhood neighborhood) {
+		MazeBatch batch = new MazeBatch(neighborhood, NUM_MAZES);
+		BatchMazeGenerator generator = new BatchMazeGenerator(algorithm);
+		generator.generate(batch, 0); // warm-up and scratch allocation
+		StopWatch watch = new StopWatch();
+		watch.measure(() -> generator.generate(batch, 42));
+		System.out.println(format("Batch %-8s %d mazes (%dx%d, %d dirs): %.0f ms, %.0f mazes/sec", algorithm,
+				NUM_MAZES, WIDTH, HEIGHT, neighborhood.dirCount(), watch.getMillis(),
+				NUM_MAZES / watch.getSeconds()));
+		for (int maze = 0; maze < batch.numMazes(); ++maze) {
+			assertSpanningTree(batch, maze);
+		}
+	}
+
+	@Test
+	public void testDFS() {
+		test(BatchAlgorithm.DFS, GridNeighborhood.grid4(WIDTH, HEIGHT));
+	}
+
+	@Test
+	public void testKruskal() {
+		test(BatchAlgorithm.KRUSKAL, GridNeighborhood.grid4(WIDTH, HEIGHT));
+	}
+
+	@Test
+	public void testWilson() {
+		test(BatchAlgorithm.WILSON, GridNeighborhood.grid4(WIDTH, HEIGHT));
+	}
+
+	@Test
+	public void testWilsonGrid8() {
+		test(BatchAlgorithm.WILSON, GridNeighborhood.grid8(WIDTH, HEIGHT));
+	}
+
+	@Test
+	public void testCopyToGrid() {
+		MazeBatch batch = new MazeBatch(GridNeighborhood.grid4(WIDTH, HEIGHT), 3);
+		new BatchMazeGenerator(BatchAlgorithm.KRUSKAL).generate(batch, 1);
+		GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(WIDTH, HEIGHT, Grid4Topology.get(),
+				TraversalState.UNVISITED, 0);
+		batch.copyTo(2, grid);
+		assertEquals(grid.numVertices() - 1, grid.numEdges());
+		assertFalse(GraphUtils.containsCycle(grid));
+		assertTrue(GraphSearchUtils.isConnectedGraph(grid));
+	}
+
+	@Test
+	public void testTopologyCache() {
+		TopologyCache cache = new TopologyCache(1 << 20);
+		ForkJoinPool singleThread = new ForkJoinPool(1);
+		try {
+			BatchMazeGenerator generator = new BatchMazeGenerator(BatchAlgorithm.KRUSKAL, singleThread);
+			generator.setTopologyCache(cache);
+			MazeBatch batch = new MazeBatch(GridNeighborhood.grid4(WIDTH, HEIGHT), 10);
+			generator.generate(batch, 3);
+			generator.generate(batch, 4);
+			assertEquals(1, cache.misses());
+			assertEquals(1, cache.size());
+		} finally {
+			singleThread.shutdown();
+		}
+	}
+
+	@Test
+	public void testConsecutiveSeedsDoNotShareMazes() {
+		GridNeighborhood neighborhood = GridNeighborhood.grid4(WIDTH, HEIGHT);
+		MazeBatch batch7 = new MazeBatch(neighborhood, 100), batch8 = new MazeBatch(neighborhood, 100);
+		BatchMazeGenerator generator = new BatchMazeGenerator(BatchAlgorithm.DFS);
+		generator.generate(batch7, 7);
+		generator.generate(batch8, 8);
+		int n = neighborhood.numCells(), shared = 0;
+		int[] contents7 = contents(batch7), contents8 = contents(batch8);
+		for (int maze = 0; maze + 1 < batch7.numMazes(); ++maze) {
+			if (Arrays.equals(contents8, maze * n, (maze + 1) * n, contents7, (maze + 1) * n, (maze + 2) * n)) {
+				++shared;
+			}
+		}
+		assertEquals(0, shared);
+	}
+
+	@Test
+	public void testResultIndependentOfThreadCount() {
+		GridNeighborhood neighborhood = GridNeighborhood.grid4(WIDTH, HEIGHT);
+		MazeBatch parallel = new MazeBatch(neighborhood, 1000), sequential = new MazeBatch(neighborhood, 1000);
+		ForkJoinPool singleThread = new ForkJoinPool(1);
+		try {
+			for (BatchAlgorithm algorithm : BatchAlgorithm.values()) {
+				new BatchMazeGenerator(algorithm).generate(parallel, 7);
+				new BatchMazeGenerator(algorithm, singleThread).generate(sequential, 7);
+				assertArrayEquals(contents(sequential), contents(parallel));
+			}
+		} finally {
+			singleThread.shutdown();
+		}
+	}
+}
@@ -0,0 +1,38 @@
+package de.amr.maze.tests;
+
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.amr.maze.alg.core.BucketQueue;
+import de.amr.maze.alg.core.MazeRandom;
+
+/**
+ * Test case for {@link BucketQueue}
+ * 
+ * @author Armin Reichert
+ */
+public class BucketQueueTest {
+
+	@Test
+	public void testBucketQueue() {
+		BucketQueue queue = new BucketQueue(100, 8);
+		Random rnd = MazeRandom.splittable(7);
+		for (int e = 0; e < 100; ++e) {
+			queue.insert(e, 4 + rnd.nextInt(4));
+		}
+		for (int e = 0; e < 100; e += 3) {
+			queue.decreaseKey(e, queue.key(e) - 4);
+		}
+		int last = 0;
+		while (!queue.isEmpty()) {
+			int e = queue.extractMin(rnd);
+			assertTrue(last <= queue.key(e));
+			assertFalse(queue.contains(e));
+			last = queue.key(e);
+		}
+	}
+}
@@ -0,0 +1,60 @@
+package de.amr.maze.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.PrimitiveIterator;
+
+import org.junit.Test;
+
+import de.amr.maze.alg.core.CellSequences;
+import de.amr.maze.alg.core.GridNeighborhood;
+
+/**
+ * Test case for {@link CellSequences}
+ * 
+ * @author Armin Reichert
+ */
+public class CellSequencesTest {
+
+	@Test
+	public void testCellSequences() {
+		for (int[] size : new int[][] { { 1, 1 }, { 1, 7 }, { 8, 3 }, { 10, 10 }, { 13, 21 } }) {
+			GridNeighborhood nh = GridNeighborhood.grid4(size[0], size[1]);
+			int center = nh.cell(size[0] / 2, size[1] / 2);
+			assertPermutation(nh, CellSequences.leftToRightSweep(nh));
+			assertPermutation(nh, CellSequences.rightToLeftSweep(nh));
+			assertPermutation(nh, CellSequences.collapsingWalls(nh));
+			assertPermutation(nh, CellSequences.spiral(nh, center));
+			assertPermutation(nh, CellSequences.recursiveCrosses(nh));
+			assertPermutation(nh, CellSequences.expandingCircle(nh, center, 0, size[0] + size[1]));
+			// rectangle borders overlap
+			assertCovers(nh, CellSequences.expandingRectangle(nh, 1, size[1], 1, size[0] - 1, true, false));
+		}
+		GridNeighborhood nh = GridNeighborhood.grid4(5, 5);
+		assertEquals(16, CellSequences.toArray(CellSequences.rectangle(nh, 0, 0, 5, 5)).length);
+		assertEquals(8, CellSequences.toArray(CellSequences.circle(nh, nh.cell(2, 2), 2)).length);
+		assertEquals(Arrays.toString(new int[] { 0, 1, 2, 5, 6, 3, 4 }),
+				Arrays.toString(CellSequences.toArray(CellSequences.sequence(
+						CellSequences.parallel(Arrays.stream(new int[] { 0, 2 }).iterator(),
+								Arrays.stream(new int[] { 1, 5, 6 }).iterator()),
+						Arrays.stream(new int[] { 3, 4 }).iterator()))));
+		assertEquals(Arrays.toString(new int[] { 0, 1, 5, 6 }),
+				Arrays.toString(CellSequences.toArray(CellSequences.parallel(Arrays.stream(new int[] { 0 }).iterator(),
+						Arrays.stream(new int[] { 1, 5, 6 }).iterator()))));
+	}
+
+	private void assertPermutation(GridNeighborhood nh, PrimitiveIterator.OfInt cells) {
+		int[] order = CellSequences.toArray(cells);
+		assertEquals(nh.numCells(), order.length);
+		assertEquals(nh.numCells(), Arrays.stream(order).distinct().count());
+	}
+
+	private void assertCovers(GridNeighborhood nh, PrimitiveIterator.OfInt cells) {
+		BitSet seen = new BitSet();
+		cells.forEachRemaining((int cell) -> seen.set(cell));
+		assertEquals(nh.numCells(), seen.cardinality());
+		assertEquals(nh.numCells(), seen.length());
+	}
+}
@@ -0,0 +1,69 @@
+package de.amr.maze.tests;
+
+import static de.amr.graph.core.api.TraversalState.COMPLETED;
+import static de.amr.graph.core.api.TraversalState.UNVISITED;
+import static de.amr.graph.core.api.TraversalState.VISITED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.function.Function;
+import java.util.stream.IntStream;
+
+import org.junit.Test;
+
+import de.amr.graph.core.api.TraversalState;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.graph.grid.impl.Grid4Topology;
+import de.amr.graph.grid.impl.GridFactory;
+import de.amr.maze.alg.core.CellStates;
+import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.traversal.IterativeDFS;
+
+/**
+ * Test case for {@link CellStates}
+ * 
+ * @author Armin Reichert
+ */
+public class CellStatesTest {
+
+	private static void assertState(IntStream cells, Function<Integer, TraversalState> fnSupplyState,
+			TraversalState... expected) {
+		cells.forEach(
+				cell -> assertTrue(Arrays.stream(expected).anyMatch(s -> s == fnSupplyState.apply(cell))));
+	}
+
+	@Test
+	public void testCellStates() {
+		CellStates states = new CellStates(100);
+		assertState(IntStream.range(0, 100), states::get, UNVISITED);
+		states.set(31, COMPLETED);
+		states.set(32, VISITED);
+		states.set(99, COMPLETED);
+		assertEquals(COMPLETED, states.get(31));
+		assertEquals(VISITED, states.get(32));
+		assertEquals(UNVISITED, states.get(33));
+		assertEquals(COMPLETED, states.get(99));
+		states.set(31, UNVISITED);
+		assertTrue(states.isUnvisited(31));
+		states.fill(COMPLETED);
+		assertState(IntStream.range(0, 100), states::get, COMPLETED);
+		states.load(cell -> cell % 3 == 0 ? UNVISITED : cell % 3 == 1 ? VISITED : COMPLETED);
+		assertState(IntStream.range(0, 100).filter(cell -> cell % 3 == 0), states::get, UNVISITED);
+		assertState(IntStream.range(0, 100).filter(cell -> cell % 3 == 1), states::get, VISITED);
+		assertState(IntStream.range(0, 100).filter(cell -> cell % 3 == 2), states::get, COMPLETED);
+		assertEquals(4 * Long.BYTES, states.memoryBytes());
+	}
+
+	@Test
+	public void testHeadlessGeneratorWritesStatesOnRequest() {
+		GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(100, 100, Grid4Topology.get(), UNVISITED, 0);
+		MazeGenerator generator = new IterativeDFS(grid);
+		generator.setHeadless(true);
+		generator.createMaze(0, 0);
+		assertState(grid.vertices(), grid::get, UNVISITED);
+		assertState(grid.vertices(), generator::getCellState, VISITED);
+		generator.copyCellStatesToGrid();
+		assertState(grid.vertices(), grid::get, VISITED);
+	}
+}
@@ -0,0 +1,56 @@
+package de.amr.maze.tests;
+
+import static org.junit.Assert.assertEquals;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.amr.maze.alg.core.DynamicConnectivity;
+import de.amr.maze.alg.core.MazeRandom;
+import de.amr.maze.alg.core.UnionFind;
+
+/**
+ * Test case for {@link DynamicConnectivity}
+ * 
+ * @author Armin Reichert
+ */
+public class DynamicConnectivityTest {
+
+	@Test
+	public void testDynamicConnectivity() {
+		Random rnd = MazeRandom.splittable(7);
+		int n = 300, m = 600;
+		int[] u = new int[m], v = new int[m];
+		boolean[] inserted = new boolean[m];
+		DynamicConnectivity dc = new DynamicConnectivity(n, m);
+		for (int e = 0; e < m; ++e) {
+			u[e] = rnd.nextInt(n);
+			v[e] = rnd.nextInt(n);
+		}
+		UnionFind uf = new UnionFind(n);
+		for (int step = 0; step < 4000; ++step) {
+			int e = rnd.nextInt(m);
+			if (inserted[e]) {
+				dc.delete(e);
+			}
+			else {
+				dc.insert(e, u[e], v[e]);
+			}
+			inserted[e] = !inserted[e];
+			uf.clear();
+			int treeEdges = 0;
+			for (int f = 0; f < m; ++f) {
+				if (inserted[f]) {
+					uf.union(u[f], v[f]);
+					treeEdges += dc.isTreeEdge(f) ? 1 : 0;
+				}
+			}
+			assertEquals(n - uf.size(), treeEdges);
+			for (int x = 0; x < n; ++x) {
+				int y = rnd.nextInt(n);
+				assertEquals(uf.sameSet(x, y), dc.connected(x, y));
+			}
+		}
+	}
+}
@@ -0,0 +1,45 @@
+package de.amr.maze.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.BitSet;
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.amr.maze.alg.core.Frontier;
+import de.amr.maze.alg.core.MazeRandom;
+
+/**
+ * Test case for {@link Frontier}
+ * 
+ * @author Armin Reichert
+ */
+public class FrontierTest {
+
+	@Test
+	public void testFrontier() {
+		Frontier frontier = new Frontier();
+		for (int cell = 0; cell < 100; ++cell) {
+			frontier.add(cell);
+		}
+		assertEquals(0, frontier.removeFirst());
+		assertEquals(99, frontier.removeLast());
+		assertEquals(50, frontier.removeAt(49));
+		assertEquals(1, frontier.get(48)); // front cell fills the hole
+		assertEquals(98, frontier.get(frontier.size() - 1));
+		for (int cell = 100; cell < 200; ++cell) {
+			frontier.add(cell);
+		}
+		assertEquals(197, frontier.size());
+		BitSet removed = new BitSet();
+		Random rnd = MazeRandom.splittable(7);
+		while (!frontier.isEmpty()) {
+			int cell = frontier.removeRandom(rnd);
+			assertFalse(removed.get(cell));
+			removed.set(cell);
+		}
+		assertEquals(197, removed.cardinality());
+	}
+}
@@ -0,0 +1,50 @@
+package de.amr.maze.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.amr.maze.alg.core.GridNeighborhood;
+
+/**
+ * Test case for {@link GridNeighborhood}
+ * 
+ * @author Armin Reichert
+ */
+public class GridNeighborhoodTest {
+
+	@Test
+	public void testNeighborhoodTables() {
+		for (GridNeighborhood nh : Arrays.asList(GridNeighborhood.grid4(7, 5), GridNeighborhood.grid8(7, 5),
+				GridNeighborhood.grid4(1, 3), GridNeighborhood.grid8(4, 1))) {
+			byte[] validDirs = nh.validDirsTable();
+			for (int cell = 0; cell < nh.numCells(); ++cell) {
+				int dirs = nh.validDirs(cell);
+				assertEquals(dirs, validDirs[cell] & 0xFF);
+				for (int k = 0; k < Integer.bitCount(dirs); ++k) {
+					int dir = GridNeighborhood.nthDir(dirs, k);
+					assertTrue((dirs & (1 << dir)) != 0);
+					assertEquals(nh.neighbor(cell, dir), cell + nh.offset(dir));
+				}
+			}
+		}
+	}
+
+	@Test
+	public void testImplicitEdgeEnumeration() {
+		GridNeighborhood grid4 = GridNeighborhood.grid4(7, 5), grid8 = GridNeighborhood.grid8(7, 5);
+		assertEquals(7 * 4 + 6 * 5, grid4.edges().length);
+		assertEquals(7 * 4 + 6 * 5 + 2 * 6 * 4, grid8.edges().length);
+		for (GridNeighborhood nh : Arrays.asList(grid4, grid8)) {
+			assertEquals(nh.numEdges(), nh.edges().length);
+			assertEquals(nh.numEdges(),
+					Arrays.stream(nh.edges()).mapToObj(edge -> {
+						int u = nh.edgeCell(edge), v = nh.neighbor(u, nh.edgeDir(edge));
+						return Math.min(u, v) + "-" + Math.max(u, v);
+					}).distinct().count());
+		}
+	}
+}
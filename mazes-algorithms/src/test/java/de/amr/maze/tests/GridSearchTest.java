@@ -0,0 +1,57 @@
+package de.amr.maze.tests;
+
+import static de.amr.graph.core.api.TraversalState.UNVISITED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import de.amr.graph.core.api.TraversalState;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.graph.grid.impl.Grid4Topology;
+import de.amr.graph.grid.impl.GridFactory;
+import de.amr.maze.alg.core.GridSearch;
+import de.amr.maze.alg.core.MazeRandom;
+import de.amr.maze.alg.core.UnionFind;
+import de.amr.maze.alg.mst.KruskalMST;
+
+/**
+ * Test case for {@link GridSearch}
+ * 
+ * @author Armin Reichert
+ */
+public class GridSearchTest {
+
+	@Test
+	public void testGridSearch() {
+		GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(30, 20, Grid4Topology.get(), UNVISITED, 0);
+		KruskalMST generator = new KruskalMST(grid);
+		generator.setRandom(MazeRandom.splittable(7));
+		generator.createMaze(0, 0);
+		// cut the maze into several parts
+		Random rnd = MazeRandom.splittable(7);
+		grid.edges().filter(edge -> rnd.nextInt(20) == 0).collect(Collectors.toList())
+				.forEach(edge -> grid.removeEdge(edge.either(), edge.other()));
+		UnionFind parts = new UnionFind(grid.numVertices());
+		grid.edges().forEach(edge -> parts.union(edge.either(), edge.other()));
+		GridSearch search = new GridSearch(grid);
+		for (int i = 0; i < 200; ++i) {
+			int u = rnd.nextInt(grid.numVertices()), v = rnd.nextInt(grid.numVertices());
+			for (GridSearch.Mode mode : GridSearch.Mode.values()) {
+				assertEquals(mode.toString(), parts.sameSet(u, v), search.connected(mode, u, v));
+				assertTrue(search.numVisited() <= grid.numVertices());
+			}
+		}
+		// bidirectional search stops when the smaller part is exhausted
+		GridGraph2D<TraversalState, Integer> twoCells = GridFactory.emptyGrid(30, 20, Grid4Topology.get(), UNVISITED,
+				0);
+		twoCells.addEdge(0, 1);
+		search = new GridSearch(twoCells);
+		assertFalse(search.connected(GridSearch.Mode.BIDI_BFS, 0, twoCells.numVertices() - 1));
+		assertEquals(3, search.numVisited());
+	}
+}
@@ -0,0 +1,43 @@
+package de.amr.maze.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Random;
+
+import org.junit.Test;
+
+import de.amr.maze.alg.core.IndexedMinHeap;
+import de.amr.maze.alg.core.MazeRandom;
+
+/**
+ * Test case for {@link IndexedMinHeap}
+ * 
+ * @author Armin Reichert
+ */
+public class IndexedMinHeapTest {
+
+	@Test
+	public void testIndexedMinHeap() {
+		IndexedMinHeap heap = new IndexedMinHeap(100);
+		Random rnd = MazeRandom.splittable(7);
+		int[] keys = new int[100];
+		for (int e = 0; e < 100; ++e) {
+			keys[e] = rnd.nextInt(1000);
+			heap.insert(e, keys[e]);
+		}
+		for (int e = 0; e < 100; e += 3) {
+			keys[e] -= 500;
+			heap.decreaseKey(e, keys[e]);
+		}
+		int last = Integer.MIN_VALUE;
+		while (!heap.isEmpty()) {
+			int e = heap.extractMin();
+			assertEquals(keys[e], heap.key(e));
+			assertTrue(last <= keys[e]);
+			assertFalse(heap.contains(e));
+			last = keys[e];
+		}
+	}
+}
@@ -1,15 +1,33 @@
 package de.amr.maze.tests;
 
 import static de.amr.graph.core.api.TraversalState.UNVISITED;
+import static org.junit.Assert.assertEquals;
+
+import java.util.Arrays;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.Function;
 
 import org.junit.Test;
 
 import de.amr.graph.core.api.TraversalState;
 import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.graph.grid.api.Topology;
 import de.amr.graph.grid.impl.GridFactory;
 import de.amr.graph.grid.impl.Grid4Topology;
+import de.amr.graph.grid.impl.Grid8Topology;
+import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.core.MazeRandom;
 import de.amr.maze.alg.mst.KruskalMST;
+import de.amr.maze.alg.mst.ParallelKruskalMST;
+import de.amr.maze.alg.mst.PrimMST;
+import de.amr.maze.alg.mst.PrimMSTBucketQueue;
+import de.amr.maze.alg.mst.ReverseDeleteMST_DynamicConnectivity;
 import de.amr.maze.alg.others.RecursiveDivision;
+import de.amr.maze.alg.traversal.RandomBFS;
+import de.amr.maze.alg.traversal.RecursiveDFS;
+import de.amr.maze.alg.ust.AldousBroderWilsonUST;
+import de.amr.maze.alg.ust.WilsonUST;
+import de.amr.maze.alg.ust.WilsonUSTRandomCell;
 import de.amr.util.StopWatch;
 
 public class LargeMazesTest {
@@ -20,7 +38,96 @@ public class LargeMazesTest {
 		StopWatch watch = new StopWatch();
 		watch.measure(() -> new KruskalMST(grid).createMaze(0, 0));
 		System.out.println(
-				String.format("Kruskal: %d vertices (%.0f ms)", numCols * numRows, watch.getMillis()));
+				String.format("Kruskal (1 thread): %d vertices (%.0f ms)", numCols * numRows, watch.getMillis()));
+	}
+
+	private void test_ParallelKruskal(int numCols, int numRows) {
+		GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(numCols, numRows, Grid4Topology.get(),
+				UNVISITED, 0);
+		StopWatch watch = new StopWatch();
+		watch.measure(() -> new ParallelKruskalMST(grid).createMaze(0, 0));
+		System.out.println(String.format("ParallelKruskal (%d threads): %d vertices (%.0f ms)",
+				ForkJoinPool.getCommonPoolParallelism(), numCols * numRows, watch.getMillis()));
+	}
+
+	private void test_Prim(String name, Function<GridGraph2D<TraversalState, Integer>, MazeGenerator> factory,
+			int numCols, int numRows) {
+		GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(numCols, numRows, Grid4Topology.get(),
+				UNVISITED, 0);
+		MazeGenerator generator = factory.apply(grid);
+		generator.setHeadless(true);
+		StopWatch watch = new StopWatch();
+		watch.measure(() -> generator.createMaze(0, 0));
+		// the fraction of dead ends characterizes the maze texture
+		long deadEnds = grid.vertices()
+				.filter(cell -> grid.neighbors(cell).filter(neighbor -> grid.adjacent(cell, neighbor)).count() == 1)
+				.count();
+		System.out.println(String.format("%s: %d vertices (%.0f ms), %.1f%% dead ends", name, numCols * numRows,
+				watch.getMillis(), 100.0 * deadEnds / grid.numVertices()));
+	}
+
+	private double test_Traversal(String name, Function<GridGraph2D<TraversalState, Integer>, MazeGenerator> factory,
+			int numCols, int numRows) {
+		GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(numCols, numRows, Grid4Topology.get(),
+				UNVISITED, 0);
+		MazeGenerator generator = factory.apply(grid);
+		generator.setHeadless(true);
+		StopWatch watch = new StopWatch();
+		watch.measure(() -> generator.createMaze(0, 0));
+		System.out.println(String.format("%s: %d vertices (%.0f ms)", name, numCols * numRows, watch.getMillis()));
+		assertEquals(grid.numVertices() - 1, grid.numEdges());
+		return watch.getMillis();
+	}
+
+	/**
+	 * Prints how the generator's running time grows with the number of cells by comparing grids of size
+	 * 1000x1000 and 2000x2000 (best of two runs after warm-up). For 4 times the cells, linear time grows
+	 * by 4, quadratic time by 16.
+	 */
+	private void benchmark_Scaling(String name, Function<GridGraph2D<TraversalState, Integer>, MazeGenerator> factory) {
+		test_Traversal(name, factory, 1000, 1000); // warm-up
+		double small = Math.min(test_Traversal(name, factory, 1000, 1000), test_Traversal(name, factory, 1000, 1000));
+		double large = Math.min(test_Traversal(name, factory, 2000, 2000), test_Traversal(name, factory, 2000, 2000));
+		System.out.println(String.format("%s: time ratio %.1f for 4 times the cells", name, large / small));
+	}
+
+	private void benchmark_AldousBroderWilson(Topology topology, int numCols, int numRows) {
+		double[] switchCosts = { 8, 32, 64, 128, 256, 512 };
+		double bestCost = 0, bestMillis = Double.MAX_VALUE;
+		for (double switchCost : switchCosts) {
+			double millis = Double.MAX_VALUE;
+			int numCellsBeforeSwitch = 0;
+			for (int run = 0; run < 3; ++run) {
+				GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(numCols, numRows, topology, UNVISITED,
+						0);
+				AldousBroderWilsonUST generator = new AldousBroderWilsonUST(grid, switchCost);
+				generator.setHeadless(true);
+				StopWatch watch = new StopWatch();
+				watch.measure(() -> generator.createMaze(0, 0));
+				millis = Math.min(millis, watch.getMillis());
+				numCellsBeforeSwitch = generator.getNumCellsBeforeSwitch();
+			}
+			System.out.println(String.format("AldousBroderWilson %dx%d %s, switch cost %.0f: %.0f ms, %.0f%% visited",
+					numCols, numRows, topology == Grid4Topology.get() ? "4-neighbors" : "8-neighbors", switchCost,
+					millis, 100.0 * numCellsBeforeSwitch / (numCols * numRows)));
+			if (millis < bestMillis) {
+				bestMillis = millis;
+				bestCost = switchCost;
+			}
+		}
+		System.out.println(String.format("Best switch cost: %.0f", bestCost));
+	}
+
+	private void test_ReverseDelete(int numCols, int numRows) {
+		GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(numCols, numRows, Grid4Topology.get(),
+				UNVISITED, 0);
+		MazeGenerator generator = new ReverseDeleteMST_DynamicConnectivity(grid);
+		generator.setHeadless(true);
+		StopWatch watch = new StopWatch();
+		watch.measure(() -> generator.createMaze(0, 0));
+		System.out.println(String.format("ReverseDelete (dynamic connectivity): %d vertices (%.0f ms)",
+				numCols * numRows, watch.getMillis()));
+		assertEquals(grid.numVertices() - 1, grid.numEdges());
 	}
 
 	private void test_RecursiveDivision(int numCols, int numRows) {
@@ -32,6 +139,45 @@ public class LargeMazesTest {
 				watch.getMillis()));
 	}
 
+	private void test_ParallelRecursiveDivision(int numCols, int numRows) {
+		GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(numCols, numRows, Grid4Topology.get(),
+				UNVISITED, 0);
+		RecursiveDivision generator = new RecursiveDivision(grid);
+		generator.setHeadless(true);
+		generator.setPool(ForkJoinPool.commonPool());
+		StopWatch watch = new StopWatch();
+		watch.measure(() -> generator.createMaze(0, 0));
+		System.out.println(String.format("ParallelRecursiveDivision (%d threads): %d vertices (%.0f ms)",
+				ForkJoinPool.getCommonPoolParallelism(), numCols * numRows, watch.getMillis()));
+		assertEquals(grid.numVertices() - 1, grid.numEdges());
+	}
+
+	private void benchmark_Wilson(int numCols, int numRows, ForkJoinPool pool) {
+		// Wilson's running time varies a lot with the random start cell order, so average some seeds
+		int numSeeds = 5;
+		double millis = 0;
+		for (int seed = 0; seed < numSeeds; ++seed) {
+			GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(numCols, numRows, Grid4Topology.get(),
+					UNVISITED, 0);
+			WilsonUST generator = new WilsonUSTRandomCell(grid);
+			generator.setHeadless(true);
+			generator.setRandom(MazeRandom.xoshiro(seed));
+			generator.setPool(pool);
+			StopWatch watch = new StopWatch();
+			watch.measure(() -> generator.createMaze(0, 0));
+			millis += watch.getMillis();
+			assertEquals(grid.numVertices() - 1, grid.numEdges());
+		}
+		System.out.println(String.format("Wilson %s: %d vertices (%.0f ms, average of %d seeds)",
+				pool == null ? "sequential" : String.format("speculative (%d threads)", pool.getParallelism()),
+				numCols * numRows, millis / numSeeds, numSeeds));
+	}
+
+	private void test_WilsonParallel(int numCols, int numRows) {
+		benchmark_Wilson(numCols, numRows, null);
+		benchmark_Wilson(numCols, numRows, ForkJoinPool.commonPool());
+	}
+
 	@Test
 	public void test_Kruskal_100_000() {
 		test_Kruskal(100, 1000);
@@ -46,6 +192,91 @@ public class LargeMazesTest {
 		test_Kruskal(1000, 1000);
 	}
 
+	@Test
+	public void test_ParallelKruskal_100_000() {
+		test_ParallelKruskal(100, 1000);
+	}
+
+	@Test
+	public void test_ParallelKruskal_500_000() {
+		test_ParallelKruskal(500, 1000);
+	}
+
+	public void test_ParallelKruskal_1_000_000() {
+		test_ParallelKruskal(1000, 1000);
+	}
+
+	public void test_Kruskal_50_000_000() {
+		test_Kruskal(10_000, 5_000);
+		test_ParallelKruskal(10_000, 5_000);
+	}
+
+	@Test
+	public void test_Prim_500_000() {
+		test_Prim("Prim", PrimMST::new, 500, 1000);
+		test_Prim("Prim bucket queue, 32 weights", PrimMSTBucketQueue::new, 500, 1000);
+		test_Prim("Prim bucket queue, 4 weights", grid -> new PrimMSTBucketQueue(grid, 4), 500, 1000);
+	}
+
+	public void test_Prim_10_000_000() {
+		test_Prim("Prim", PrimMST::new, 5000, 2000);
+		test_Prim("Prim bucket queue, 32 weights", PrimMSTBucketQueue::new, 5000, 2000);
+		test_Prim("Prim bucket queue, 4 weights", grid -> new PrimMSTBucketQueue(grid, 4), 5000, 2000);
+	}
+
+	@Test
+	public void test_RandomBFS_1_000_000() {
+		test_Traversal("RandomBFS", RandomBFS::new, 1000, 1000);
+	}
+
+	public void benchmark_RandomBFS_Scaling() {
+		benchmark_Scaling("RandomBFS", RandomBFS::new);
+	}
+
+	public void test_RandomBFS_4_000_000() {
+		test_Traversal("RandomBFS", RandomBFS::new, 2000, 2000);
+	}
+
+	@Test
+	public void test_RecursiveDFS_1_000_000() {
+		test_Traversal("RecursiveDFS", RecursiveDFS::new, 1000, 1000);
+	}
+
+	public void test_RecursiveDFS_100_000_000() {
+		test_Traversal("RecursiveDFS", RecursiveDFS::new, 10_000, 10_000);
+	}
+
+	public void test_WilsonParallel_1_000_000() {
+		test_WilsonParallel(1000, 1000);
+	}
+
+	public void test_WilsonParallel_4_000_000() {
+		test_WilsonParallel(2000, 2000);
+	}
+
+	@Test
+	public void benchmark_AldousBroderWilson_10_000() {
+		benchmark_AldousBroderWilson(Grid4Topology.get(), 100, 100);
+	}
+
+	public void benchmark_AldousBroderWilson() {
+		for (Topology topology : Arrays.asList(Grid4Topology.get(), Grid8Topology.get())) {
+			for (int size : new int[] { 100, 300, 1000 }) {
+				benchmark_AldousBroderWilson(topology, size, size);
+			}
+		}
+	}
+
+	@Test
+	public void test_ReverseDelete_100_000() {
+		test_ReverseDelete(100, 1000);
+	}
+
+	public void test_ReverseDelete_1_000_000() {
+		// needs about 1 GB of heap and takes more than a minute
+		test_ReverseDelete(1000, 1000);
+	}
+
 	@Test
 	public void test_RecursiveDivision_100_000() {
 		test_RecursiveDivision(100, 1000);
@@ -59,4 +290,13 @@ public class LargeMazesTest {
 	public void test_RecursiveDivision_1_000_000() {
 		test_RecursiveDivision(1000, 1000);
 	}
+
+	@Test
+	public void test_ParallelRecursiveDivision_500_000() {
+		test_ParallelRecursiveDivision(500, 1000);
+	}
+
+	public void test_ParallelRecursiveDivision_100_000_000() {
+		test_ParallelRecursiveDivision(10_000, 10_000);
+	}
 }
\ No newline at end of file
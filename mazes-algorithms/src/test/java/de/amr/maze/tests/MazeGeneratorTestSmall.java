@@ -23,6 +23,8 @@ import de.amr.graph.util.GraphUtils;
 import de.amr.maze.alg.core.MazeGenerator;
 import de.amr.maze.alg.mst.ReverseDeleteMST_BFS;
 import de.amr.maze.alg.mst.ReverseDeleteMST_BestFS;
+import de.amr.maze.alg.mst.ReverseDeleteMST_BidiAStar;
+import de.amr.maze.alg.mst.ReverseDeleteMST_BidiBFS;
 import de.amr.maze.alg.mst.ReverseDeleteMST_DFS;
 import de.amr.maze.alg.mst.ReverseDeleteMST_HillClimbing;
 import de.amr.maze.alg.traversal.RecursiveDFS;
@@ -87,6 +89,16 @@ public class MazeGeneratorTestSmall {
 		test(new ReverseDeleteMST_BFS(smallGrid));
 	}
 
+	@Test
+	public void testReverseDeleteBidiBFSMST() {
+		test(new ReverseDeleteMST_BidiBFS(smallGrid));
+	}
+
+	@Test
+	public void testReverseDeleteBidiAStarMST() {
+		test(new ReverseDeleteMST_BidiAStar(smallGrid));
+	}
+
 	@Test
 	public void testReverseDeleteHillClimbingMST() {
 		test(new ReverseDeleteMST_HillClimbing(smallGrid));
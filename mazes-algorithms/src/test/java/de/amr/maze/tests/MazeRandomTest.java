@@ -0,0 +1,59 @@
+package de.amr.maze.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+
+import org.junit.Test;
+
+import de.amr.maze.alg.core.MazeRandom;
+
+/**
+ * Test case for {@link MazeRandom}
+ * 
+ * @author Armin Reichert
+ */
+public class MazeRandomTest {
+
+	@Test
+	public void testMazeRandomSetSeed() {
+		for (MazeRandom rnd : Arrays.asList(MazeRandom.xoshiro(1), MazeRandom.splittable(1))) {
+			long first = rnd.nextLong();
+			rnd.nextGaussian(); // caches the second Gaussian of the pair
+			rnd.setSeed(1);
+			assertEquals(first, rnd.nextLong());
+			rnd.setSeed(2);
+			double gaussian = rnd.nextGaussian();
+			rnd.setSeed(2);
+			assertEquals(gaussian, rnd.nextGaussian(), 0);
+		}
+		assertEquals(MazeRandom.xoshiro(5).nextLong(), reseeded(MazeRandom.xoshiro(1), 5).nextLong());
+		assertEquals(MazeRandom.splittable(5).nextLong(), reseeded(MazeRandom.splittable(1), 5).nextLong());
+	}
+
+	private static MazeRandom reseeded(MazeRandom rnd, long seed) {
+		rnd.nextLong();
+		rnd.setSeed(seed);
+		return rnd;
+	}
+
+	@Test
+	public void testBoundedHash() {
+		int[] counts = new int[3];
+		for (int i = 0; i < 30_000; ++i) {
+			int value = MazeRandom.hash(7, i, 3);
+			assertEquals(value, MazeRandom.hash(7, i, 3));
+			++counts[value];
+		}
+		for (int count : counts) {
+			assertTrue(Math.abs(count - 10_000) < 500);
+		}
+		// with this bound about a quarter of the values are rejected
+		int bound = (1 << 30) + 1;
+		for (int i = 0; i < 1000; ++i) {
+			int value = MazeRandom.hash(7, i, bound);
+			assertTrue(value >= 0 && value < bound);
+		}
+	}
+}
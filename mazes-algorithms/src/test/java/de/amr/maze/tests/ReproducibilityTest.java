@@ -0,0 +1,103 @@
+package de.amr.maze.tests;
+
+import static de.amr.graph.core.api.TraversalState.UNVISITED;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BiFunction;
+import java.util.stream.Collectors;
+
+import org.junit.Test;
+
+import de.amr.graph.core.api.TraversalState;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.graph.grid.impl.Grid4Topology;
+import de.amr.graph.grid.impl.GridFactory;
+import de.amr.graph.util.GraphUtils;
+import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.core.MazeRandom;
+import de.amr.maze.alg.mst.KruskalMST;
+import de.amr.maze.alg.mst.ParallelBoruvkaMST;
+import de.amr.maze.alg.mst.ParallelKruskalMST;
+import de.amr.maze.alg.others.RecursiveDivision;
+import de.amr.maze.alg.ust.WilsonUST;
+import de.amr.maze.alg.ust.WilsonUSTRandomCell;
+
+/**
+ * Tests that seeded generators create the same maze again, also with a different number of threads.
+ * 
+ * @author Armin Reichert
+ */
+public class ReproducibilityTest {
+
+	private static List<String> edgeList(GridGraph2D<TraversalState, Integer> grid) {
+		return grid.edges().map(edge -> Math.min(edge.either(), edge.other()) + "-" + Math.max(edge.either(), edge.other()))
+				.sorted().collect(Collectors.toList());
+	}
+
+	@Test
+	public void testSeededGeneratorsAreReproducible() {
+		GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(100, 100, Grid4Topology.get(), UNVISITED, 0);
+		GridGraph2D<TraversalState, Integer> other = GridFactory.emptyGrid(100, 100, Grid4Topology.get(), UNVISITED, 0);
+		MazeGenerator gen1 = new KruskalMST(grid), gen2 = new KruskalMST(other);
+		gen1.setRandom(MazeRandom.xoshiro(42));
+		gen2.setRandom(MazeRandom.xoshiro(42));
+		gen1.createMaze(0, 0);
+		gen2.createMaze(0, 0);
+		assertEquals(edgeList(grid), edgeList(other));
+	}
+
+	private void assertIndependentOfThreadCount(
+			BiFunction<GridGraph2D<TraversalState, Integer>, ForkJoinPool, MazeGenerator> factory) {
+		// large enough for several buckets and work chunks
+		GridGraph2D<TraversalState, Integer> grid1 = GridFactory.emptyGrid(400, 300, Grid4Topology.get(),
+				UNVISITED, 0);
+		GridGraph2D<TraversalState, Integer> grid2 = GridFactory.emptyGrid(400, 300, Grid4Topology.get(),
+				UNVISITED, 0);
+		ForkJoinPool singleThread = new ForkJoinPool(1), fourThreads = new ForkJoinPool(4);
+		try {
+			MazeGenerator gen1 = factory.apply(grid1, singleThread);
+			MazeGenerator gen2 = factory.apply(grid2, fourThreads);
+			gen1.setRandom(MazeRandom.xoshiro(42));
+			gen2.setRandom(MazeRandom.xoshiro(42));
+			gen1.createMaze(0, 0);
+			gen2.createMaze(0, 0);
+			assertEquals(grid1.numVertices() - 1, grid1.numEdges());
+			assertFalse(GraphUtils.containsCycle(grid1));
+			assertEquals(edgeList(grid1), edgeList(grid2));
+		} finally {
+			singleThread.shutdown();
+			fourThreads.shutdown();
+		}
+	}
+
+	@Test
+	public void testParallelKruskalIndependentOfThreadCount() {
+		assertIndependentOfThreadCount(ParallelKruskalMST::new);
+	}
+
+	@Test
+	public void testParallelBoruvkaIndependentOfThreadCount() {
+		assertIndependentOfThreadCount(ParallelBoruvkaMST::new);
+	}
+
+	@Test
+	public void testSpeculativeWilsonIndependentOfThreadCount() {
+		assertIndependentOfThreadCount((grid, pool) -> {
+			WilsonUST wilson = new WilsonUSTRandomCell(grid);
+			wilson.setPool(pool);
+			return wilson;
+		});
+	}
+
+	@Test
+	public void testParallelRecursiveDivisionIndependentOfThreadCount() {
+		assertIndependentOfThreadCount((grid, pool) -> {
+			RecursiveDivision division = new RecursiveDivision(grid);
+			division.setPool(pool);
+			return division;
+		});
+	}
+}
@@ -0,0 +1,62 @@
+package de.amr.maze.tests;
+
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertTrue;
+
+import java.util.Arrays;
+import java.util.BitSet;
+import java.util.concurrent.ForkJoinPool;
+
+import org.junit.Test;
+
+import de.amr.maze.alg.core.SpaceFillingCurves.Curve;
+import de.amr.maze.alg.core.SpaceFillingCurves;
+
+/**
+ * Test case for {@link SpaceFillingCurves}
+ * 
+ * @author Armin Reichert
+ */
+public class SpaceFillingCurvesTest {
+
+	private void assertCurve(Curve curve, int n, int startCol, int startRow) {
+		BitSet covered = new BitSet();
+		long prev = curve.position(n, 0);
+		assertEquals(startCol, SpaceFillingCurves.col(prev));
+		assertEquals(startRow, SpaceFillingCurves.row(prev));
+		covered.set(SpaceFillingCurves.row(prev) * n + SpaceFillingCurves.col(prev));
+		for (long d = 1; d < (long) n * n; ++d) {
+			long p = curve.position(n, d);
+			int col = SpaceFillingCurves.col(p), row = SpaceFillingCurves.row(p);
+			assertEquals(1,
+					Math.abs(col - SpaceFillingCurves.col(prev)) + Math.abs(row - SpaceFillingCurves.row(prev)));
+			covered.set(row * n + col);
+			prev = p;
+		}
+		assertEquals(n * n, covered.cardinality());
+	}
+
+	@Test
+	public void testSpaceFillingCurves() {
+		for (int n : new int[] { 1, 2, 8, 32 }) {
+			assertCurve(SpaceFillingCurves::hilbert, n, 0, 0);
+		}
+		for (int n : new int[] { 1, 2, 8, 32 }) {
+			assertCurve(SpaceFillingCurves::moore, n, n / 2, n - 1);
+		}
+		assertArrayEquals(new int[] { 0 }, SpaceFillingCurves.cells(SpaceFillingCurves::moore, 1, 1, 1, null));
+		for (int n : new int[] { 1, 3, 9, 27 }) {
+			assertCurve(SpaceFillingCurves::peano, n, 0, n - 1);
+		}
+		ForkJoinPool pool = new ForkJoinPool(4);
+		try {
+			int[] cells = SpaceFillingCurves.cells(SpaceFillingCurves::hilbert, 512, 300, 500, null);
+			assertEquals(300 * 500, Arrays.stream(cells).distinct().count());
+			assertTrue(
+					Arrays.equals(cells, SpaceFillingCurves.cells(SpaceFillingCurves::hilbert, 512, 300, 500, pool)));
+		} finally {
+			pool.shutdown();
+		}
+	}
+}
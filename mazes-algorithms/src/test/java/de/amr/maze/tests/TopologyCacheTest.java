@@ -0,0 +1,86 @@
+package de.amr.maze.tests;
+
+import static de.amr.graph.core.api.TraversalState.UNVISITED;
+import static org.junit.Assert.assertArrayEquals;
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.amr.graph.core.api.TraversalState;
+import de.amr.graph.grid.api.GridGraph2D;
+import de.amr.graph.grid.impl.Grid4Topology;
+import de.amr.graph.grid.impl.GridFactory;
+import de.amr.maze.alg.core.GridNeighborhood;
+import de.amr.maze.alg.core.MazeGenerator;
+import de.amr.maze.alg.core.TopologyCache;
+import de.amr.maze.alg.mst.KruskalMST;
+
+/**
+ * Test case for {@link TopologyCache}
+ * 
+ * @author Armin Reichert
+ */
+public class TopologyCacheTest {
+
+	@Test
+	public void testTopologyCache() {
+		GridNeighborhood a = GridNeighborhood.grid4(10, 10), b = GridNeighborhood.grid8(10, 10);
+		long size = TopologyCache.memoryBytes(new int[100]);
+		TopologyCache cache = new TopologyCache(2 * size);
+		int[] cellsA = cache.getCells("cells", a, () -> new int[100]);
+		assertTrue(cellsA == cache.getCells("cells", a, () -> new int[100]));
+		assertEquals(1, cache.hits());
+		assertEquals(1, cache.misses());
+		cache.getCells("cells", b, () -> new int[100]);
+		assertEquals(2, cache.size());
+		assertEquals(2 * size, cache.memoryBytes());
+		// access a, then adding a third entry evicts b as least recently used
+		cache.getCells("cells", a, () -> new int[100]);
+		cache.getCells("other", a, () -> new int[100]);
+		assertEquals(2, cache.size());
+		assertTrue(cellsA == cache.getCells("cells", a, () -> new int[100]));
+		assertEquals(3, cache.misses());
+		cache.getCells("cells", b, () -> new int[100]);
+		assertEquals(4, cache.misses());
+		// too large to be cached
+		cache.getCells("large", a, () -> new int[1000]);
+		assertEquals(2 * size, cache.memoryBytes());
+		cache.setCapacityBytes(size);
+		assertEquals(1, cache.size());
+		assertEquals(size, cache.memoryBytes());
+		cache.clear();
+		assertEquals(0, cache.size());
+		assertEquals(0, cache.memoryBytes());
+	}
+
+	@Test
+	public void testTopologyCacheModifiableEdges() {
+		GridNeighborhood neighborhood = GridNeighborhood.grid4(10, 10);
+		TopologyCache cache = new TopologyCache(1 << 20);
+		int[] edges = cache.getModifiableEdges(neighborhood);
+		int[] shared = cache.getEdges(neighborhood);
+		assertFalse(edges == shared);
+		assertArrayEquals(shared, edges);
+		assertFalse(cache.getModifiableEdges(neighborhood) == shared);
+		// too large to be cached: returned as computed, nothing stored
+		TopologyCache tiny = new TopologyCache(0);
+		assertArrayEquals(shared, tiny.getModifiableEdges(neighborhood));
+		assertEquals(0, tiny.size());
+	}
+
+	@Test
+	public void testGeneratorsUseTopologyCache() {
+		TopologyCache cache = new TopologyCache(1 << 20);
+		for (int i = 0; i < 2; ++i) {
+			GridGraph2D<TraversalState, Integer> grid = GridFactory.emptyGrid(256, 256, Grid4Topology.get(), UNVISITED, 0);
+			MazeGenerator generator = new KruskalMST(grid);
+			generator.setTopologyCache(cache);
+			generator.createMaze(0, 0);
+			assertEquals(grid.numVertices() - 1, grid.numEdges());
+		}
+		assertEquals(1, cache.misses());
+		assertEquals(1, cache.hits());
+	}
+}
@@ -0,0 +1,35 @@
+package de.amr.maze.tests;
+
+import static org.junit.Assert.assertEquals;
+import static org.junit.Assert.assertFalse;
+import static org.junit.Assert.assertTrue;
+
+import org.junit.Test;
+
+import de.amr.maze.alg.core.UnionFind;
+
+/**
+ * Test case for {@link UnionFind}
+ * 
+ * @author Armin Reichert
+ */
+public class UnionFindTest {
+
+	@Test
+	public void testUnionFind() {
+		UnionFind uf = new UnionFind(10);
+		assertEquals(10, uf.size());
+		assertTrue(uf.union(1, 2));
+		assertTrue(uf.union(3, 2));
+		assertFalse(uf.union(1, 3));
+		assertTrue(uf.sameSet(1, 3));
+		assertFalse(uf.sameSet(1, 4));
+		assertEquals(3, uf.setSize(2));
+		assertEquals(8, uf.size());
+		uf.clear();
+		assertEquals(10, uf.size());
+		assertFalse(uf.sameSet(1, 3));
+		assertEquals(1, uf.setSize(2));
+		assertTrue(uf.union(1, 3));
+	}
+}
@@ -2,51 +2,85 @@ package de.amr.mazes.simple;
 
 import java.util.ArrayDeque;
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.BitSet;
 import java.util.Collections;
 import java.util.Deque;
 import java.util.List;
 import java.util.PriorityQueue;
 import java.util.Random;
-import java.util.stream.Collectors;
-import java.util.stream.IntStream;
 
-import de.amr.datastruct.Partition;
 import de.amr.mazes.simple.graph.Dir;
 import de.amr.mazes.simple.graph.DirMap;
 import de.amr.mazes.simple.graph.Edge;
 import de.amr.mazes.simple.graph.GridGraph;
+import de.amr.mazes.simple.graph.IntBag;
+import de.amr.mazes.simple.graph.UnionFind;
 
 /**
  * Collection of maze generation algorithms.
+ * <p>
+ * The random number generator is passed to each algorithm, using a seeded generator makes the
+ * created maze reproducible.
  * 
  * @author Armin Reichert
  */
 public class MazeAlgorithms {
 
-	// Random Depth-First-Search (recursive)
+	// Random Depth-First-Search (recursive visiting order, explicit stack)
 
-	public static void createMazeByDFSRecursive(GridGraph grid, int vertex, BitSet visited) {
+	public static void createMazeByDFSRecursive(GridGraph grid, int vertex, BitSet visited, Random rnd) {
+		// stack frame = vertex + its shuffled directions not tried yet (2 bits each, count in bits 8-10)
+		int[] stackVertices = new int[1024];
+		int[] stackDirs = new int[1024];
+		int top = 0;
 		visited.set(vertex);
-		for (Dir dir : Dir.shuffled()) {
-			int neighbor = grid.neighbor(vertex, dir);
+		stackVertices[0] = vertex;
+		stackDirs[0] = shuffledDirs(rnd);
+		while (top >= 0) {
+			int dirs = stackDirs[top];
+			if (dirs >>> 8 == 0) {
+				--top;
+				continue;
+			}
+			stackDirs[top] = ((dirs >>> 8) - 1) << 8 | (dirs & 0xFF) >>> 2;
+			Dir dir = Dir.of(dirs & 3);
+			int current = stackVertices[top];
+			int neighbor = grid.neighbor(current, dir);
 			if (neighbor != -1 && !visited.get(neighbor)) {
-				grid.connect(vertex, dir);
-				createMazeByDFSRecursive(grid, neighbor, visited);
+				grid.connect(current, dir);
+				visited.set(neighbor);
+				if (++top == stackVertices.length) {
+					stackVertices = Arrays.copyOf(stackVertices, 2 * top);
+					stackDirs = Arrays.copyOf(stackDirs, 2 * top);
+				}
+				stackVertices[top] = neighbor;
+				stackDirs[top] = shuffledDirs(rnd);
 			}
 		}
 	}
 
+	private static int shuffledDirs(Random rnd) {
+		int[] order = { 0, 1, 2, 3 };
+		int packed = 4 << 8;
+		for (int i = 0; i < 4; ++i) {
+			int j = i + rnd.nextInt(4 - i), dir = order[j];
+			order[j] = order[i];
+			packed |= dir << 2 * i;
+		}
+		return packed;
+	}
+
 	// Random Depth-First-Search (non-recursive)
 
-	public static void createMazeByDFS(GridGraph grid, int startVertex) {
+	public static void createMazeByDFS(GridGraph grid, int startVertex, Random rnd) {
 		BitSet visited = new BitSet();
 		Deque<Integer> stack = new ArrayDeque<>();
 		visited.set(startVertex);
 		stack.push(startVertex);
 		while (!stack.isEmpty()) {
 			int vertex = stack.pop();
-			for (Dir dir : Dir.shuffled()) {
+			for (Dir dir : Dir.shuffled(rnd)) {
 				int neighbor = grid.neighbor(vertex, dir);
 				if (neighbor != -1 && !visited.get(neighbor)) {
 					grid.connect(vertex, dir);
@@ -59,15 +93,14 @@ public class MazeAlgorithms {
 
 	// Random Breadth-First-Search
 
-	public static void createMazeByBFS(GridGraph grid, int startVertex) {
+	public static void createMazeByBFS(GridGraph grid, int startVertex, Random rnd) {
 		BitSet visited = new BitSet();
-		List<Integer> frontier = new ArrayList<>();
-		Random rnd = new Random();
+		IntBag frontier = new IntBag();
 		visited.set(startVertex);
 		frontier.add(startVertex);
 		while (!frontier.isEmpty()) {
-			int vertex = frontier.remove(rnd.nextInt(frontier.size()));
-			for (Dir dir : Dir.shuffled()) {
+			int vertex = frontier.removeRandom(rnd);
+			for (Dir dir : Dir.shuffled(rnd)) {
 				int neighbor = grid.neighbor(vertex, dir);
 				if (neighbor != -1 && !visited.get(neighbor)) {
 					grid.connect(vertex, dir);
@@ -80,7 +113,7 @@ public class MazeAlgorithms {
 
 	// Kruskal's MST algorithm
 
-	public static void createMazeByKruskal(GridGraph grid) {
+	public static void createMazeByKruskal(GridGraph grid, Random rnd) {
 		List<Edge> edges = new ArrayList<>();
 		for (int row = 0; row < grid.numRows(); ++row) {
 			for (int col = 0; col < grid.numCols(); ++col) {
@@ -93,23 +126,20 @@ public class MazeAlgorithms {
 				}
 			}
 		}
-		Collections.shuffle(edges);
-		Partition<Integer> forest = new Partition<>();
+		Collections.shuffle(edges, rnd);
+		UnionFind forest = new UnionFind(grid.numVertices());
 		for (Edge edge : edges) {
-			int u = edge.either, v = edge.other;
-			if (forest.find(u) != forest.find(v)) {
-				grid.connect(u, v);
-				forest.union(u, v);
+			if (forest.union(edge.either, edge.other)) {
+				grid.connect(edge.either, edge.other);
 			}
 		}
 	}
 
 	// Prim's MST algorithm
 
-	public static void createMazeByPrim(GridGraph grid, int startVertex) {
+	public static void createMazeByPrim(GridGraph grid, int startVertex, Random rnd) {
 		BitSet visited = new BitSet();
 		PriorityQueue<Edge> cut = new PriorityQueue<>();
-		Random rnd = new Random();
 		expand(grid, startVertex, cut, visited, rnd);
 		while (!cut.isEmpty()) {
 			Edge edge = cut.poll();
@@ -135,8 +165,7 @@ public class MazeAlgorithms {
 
 	// Binary tree algorithm
 
-	public static void createMazeByBinaryTree(GridGraph grid) {
-		Random rnd = new Random();
+	public static void createMazeByBinaryTree(GridGraph grid, Random rnd) {
 		Dir[] dirs = { Dir.E, Dir.S };
 		for (int vertex = 0; vertex < grid.numVertices(); ++vertex) {
 			int choice = rnd.nextInt(2);
@@ -155,15 +184,14 @@ public class MazeAlgorithms {
 
 	// Growing tree algorithm
 
-	public static void createMazeByGrowingTree(GridGraph grid, int startVertex) {
-		Random rnd = new Random();
+	public static void createMazeByGrowingTree(GridGraph grid, int startVertex, Random rnd) {
 		BitSet visited = new BitSet();
 		List<Integer> vertices = new ArrayList<>();
 		vertices.add(startVertex);
 		do {
 			int index = rnd.nextBoolean() ? vertices.size() - 1 : rnd.nextInt(vertices.size());
 			int vertex = vertices.remove(index);
-			for (Dir dir : Dir.shuffled()) {
+			for (Dir dir : Dir.shuffled(rnd)) {
 				int neighbor = grid.neighbor(vertex, dir);
 				if (neighbor != -1 && !visited.get(neighbor)) {
 					grid.connect(vertex, dir);
@@ -177,8 +205,7 @@ public class MazeAlgorithms {
 
 	// Sidewinder algorithm
 
-	public static void createMazeBySidewinder(GridGraph grid) {
-		Random rnd = new Random();
+	public static void createMazeBySidewinder(GridGraph grid, Random rnd) {
 		BitSet visited = new BitSet();
 		for (int row = 0; row < grid.numRows(); ++row) {
 			int current = 0;
@@ -201,66 +228,87 @@ public class MazeAlgorithms {
 		}
 	}
 
-	// Recursive division
+	// Recursive division (walls recorded in bitmap, explicit stack, passages added at the end)
 
-	public static void createMazeByRecursiveDivision(GridGraph grid) {
+	public static void createMazeByRecursiveDivision(GridGraph grid, Random rnd) {
+		// bit 2 * vertex = wall to the south, bit 2 * vertex + 1 = wall to the east
+		BitSet walls = new BitSet(2 * grid.numVertices());
+		// stack frame = subgrid (x0, y0, w, h), first part of a subgrid is divided before the second
+		int[] stack = new int[4 * 32];
+		stack[0] = 0;
+		stack[1] = 0;
+		stack[2] = grid.numCols();
+		stack[3] = grid.numRows();
+		int top = 4;
+		while (top > 0) {
+			int h = stack[--top], w = stack[--top], y0 = stack[--top], x0 = stack[--top];
+			if (w <= 1 && h <= 1) {
+				continue;
+			}
+			if (top + 8 > stack.length) {
+				stack = Arrays.copyOf(stack, 2 * stack.length);
+			}
+			if (w < h || (w == h && rnd.nextBoolean())) {
+				// Build "horizontal wall" at random y from [y0 + 1, y0 + h - 1], keep random door
+				int y = y0 + 1 + rnd.nextInt(h - 1);
+				int door = x0 + rnd.nextInt(w);
+				for (int x = x0; x < x0 + w; ++x) {
+					if (x != door) {
+						walls.set(2 * grid.vertex(y - 1, x));
+					}
+				}
+				top = push(stack, top, x0, y, w, h - (y - y0));
+				top = push(stack, top, x0, y0, w, y - y0);
+			}
+			else {
+				// Build "vertical wall" at random x from [x0 + 1, x0 + w - 1], keep random door
+				int x = x0 + 1 + rnd.nextInt(w - 1);
+				int door = y0 + rnd.nextInt(h);
+				for (int y = y0; y < y0 + h; ++y) {
+					if (y != door) {
+						walls.set(2 * grid.vertex(y, x - 1) + 1);
+					}
+				}
+				top = push(stack, top, x, y0, w - (x - x0), h);
+				top = push(stack, top, x0, y0, x - x0, h);
+			}
+		}
 		for (int row = 0; row < grid.numRows(); ++row) {
 			for (int col = 0; col < grid.numCols(); ++col) {
 				int vertex = grid.vertex(row, col);
-				if (row > 0) {
-					grid.connect(vertex, Dir.N);
+				if (row + 1 < grid.numRows() && !walls.get(2 * vertex)) {
+					grid.connect(vertex, Dir.S);
 				}
-				if (col > 0) {
-					grid.connect(vertex, Dir.W);
+				if (col + 1 < grid.numCols() && !walls.get(2 * vertex + 1)) {
+					grid.connect(vertex, Dir.E);
 				}
 			}
 		}
-		divide(grid, new Random(), 0, 0, grid.numCols(), grid.numRows());
 	}
 
-	private static void divide(GridGraph grid, Random rnd, int x0, int y0, int w, int h) {
-		if (w <= 1 && h <= 1) {
-			return;
-		}
-		if (w < h || (w == h && rnd.nextBoolean())) {
-			// Build "horizontal wall" at random y from [y0 + 1, y0 + h - 1], keep random door
-			int y = y0 + 1 + rnd.nextInt(h - 1);
-			int door = x0 + rnd.nextInt(w);
-			for (int x = x0; x < x0 + w; ++x) {
-				if (x != door) {
-					grid.disconnect(grid.vertex(y - 1, x), Dir.S);
-				}
-			}
-			divide(grid, rnd, x0, y0, w, y - y0);
-			divide(grid, rnd, x0, y, w, h - (y - y0));
-		}
-		else {
-			// Build "vertical wall" at random x from [x0 + 1, x0 + w - 1], keep random door
-			int x = x0 + 1 + rnd.nextInt(w - 1);
-			int door = y0 + rnd.nextInt(h);
-			for (int y = y0; y < y0 + h; ++y) {
-				if (y != door) {
-					grid.disconnect(grid.vertex(y, x - 1), Dir.E);
-				}
-			}
-			divide(grid, rnd, x0, y0, x - x0, h);
-			divide(grid, rnd, x, y0, w - (x - x0), h);
-		}
+	private static int push(int[] stack, int top, int x0, int y0, int w, int h) {
+		stack[top++] = x0;
+		stack[top++] = y0;
+		stack[top++] = w;
+		stack[top++] = h;
+		return top;
 	}
 
 	// Aldous/Broder algorithm
 
-	public static void createMazeByAldousBroder(GridGraph grid, int startVertex) {
+	public static void createMazeByAldousBroder(GridGraph grid, int startVertex, Random rnd) {
 		BitSet visited = new BitSet();
 		int vertex = startVertex;
 		visited.set(vertex);
-		while (visited.cardinality() < grid.numVertices()) {
-			Dir dir = Dir.random();
+		int numVisited = 1;
+		while (numVisited < grid.numVertices()) {
+			Dir dir = Dir.random(rnd);
 			int neighbor = grid.neighbor(vertex, dir);
 			if (neighbor != -1) {
 				if (!visited.get(neighbor)) {
 					grid.connect(vertex, dir);
 					visited.set(neighbor);
+					++numVisited;
 				}
 				vertex = neighbor;
 			}
@@ -269,23 +317,34 @@ public class MazeAlgorithms {
 
 	// Wilson's algorithm
 
-	public static void createMazeByWilson(GridGraph grid) {
-		List<Integer> vertices = IntStream.range(0, grid.numVertices()).boxed()
-				.collect(Collectors.toCollection(ArrayList::new));
-		Collections.shuffle(vertices);
-		BitSet inTree = new BitSet();
-		inTree.set(vertices.get(0));
-		DirMap lastWalkDir = new DirMap();
+	public static void createMazeByWilson(GridGraph grid, Random rnd) {
+		int[] vertices = new int[grid.numVertices()];
+		for (int i = 0; i < vertices.length; ++i) {
+			vertices[i] = i;
+		}
+		shuffle(vertices, rnd);
+		BitSet inTree = new BitSet(grid.numVertices());
+		inTree.set(vertices[0]);
+		DirMap lastWalkDir = new DirMap(grid.numVertices());
 		for (int vertex : vertices) {
-			loopErasedRandomWalk(grid, vertex, lastWalkDir, inTree);
+			loopErasedRandomWalk(grid, vertex, lastWalkDir, inTree, rnd);
 		}
 	}
 
-	private static void loopErasedRandomWalk(GridGraph grid, int start, DirMap lastWalkDir, BitSet inTree) {
+	private static void shuffle(int[] a, Random rnd) {
+		for (int i = a.length - 1; i > 0; --i) {
+			int j = rnd.nextInt(i + 1), tmp = a[i];
+			a[i] = a[j];
+			a[j] = tmp;
+		}
+	}
+
+	private static void loopErasedRandomWalk(GridGraph grid, int start, DirMap lastWalkDir, BitSet inTree,
+			Random rnd) {
 		// random walk until a tree vertex is touched
 		int vertex = start;
 		while (!inTree.get(vertex)) {
-			Dir walkDir = Dir.random();
+			Dir walkDir = Dir.random(rnd);
 			int neighbor = grid.neighbor(vertex, walkDir);
 			if (neighbor != -1) {
 				lastWalkDir.set(vertex, walkDir);
@@ -7,6 +7,7 @@ import static de.amr.mazes.simple.MazeAlgorithms.createMazeBySidewinder;
 import static de.amr.mazes.simple.MazeAlgorithms.createMazeByWilson;
 import static de.amr.mazes.simple.graph.GraphFunctions.prettyPrint;
 
+import java.util.Random;
 import java.util.function.Consumer;
 
 import de.amr.mazes.simple.graph.GraphFunctions;
@@ -20,11 +21,12 @@ import de.amr.mazes.simple.graph.GridGraphImpl;
 public class SimpleMazeApp {
 
 	public static void main(String[] args) {
-		printMaze("AldousBroder", grid -> createMazeByAldousBroder(grid, 0), 10, 10);
-		printMaze("Growing Tree", grid -> createMazeByGrowingTree(grid, 0), 10, 10);
-		printMaze("Sidewinder", grid -> createMazeBySidewinder(grid), 10, 10);
-		printMaze("Recursive Division", grid -> createMazeByRecursiveDivision(grid), 10, 10);
-		printMaze("Wilson", grid -> createMazeByWilson(grid), 10, 10);
+		Random rnd = new Random();
+		printMaze("AldousBroder", grid -> createMazeByAldousBroder(grid, 0, rnd), 10, 10);
+		printMaze("Growing Tree", grid -> createMazeByGrowingTree(grid, 0, rnd), 10, 10);
+		printMaze("Sidewinder", grid -> createMazeBySidewinder(grid, rnd), 10, 10);
+		printMaze("Recursive Division", grid -> createMazeByRecursiveDivision(grid, rnd), 10, 10);
+		printMaze("Wilson", grid -> createMazeByWilson(grid, rnd), 10, 10);
 	}
 
 	static void printMaze(String name, Consumer<GridGraphImpl> generator, int rows, int cols) {
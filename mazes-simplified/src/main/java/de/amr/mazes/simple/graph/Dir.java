@@ -14,13 +14,19 @@ public enum Dir {
 		return OPPOSITE[ordinal()];
 	}
 
-	public static Dir random() {
-		return values()[new Random().nextInt(4)];
+	private static final Dir[] VALUES = values();
+
+	public static Dir of(int ordinal) {
+		return VALUES[ordinal];
+	}
+
+	public static Dir random(Random rnd) {
+		return VALUES[rnd.nextInt(4)];
 	}
 
-	public static Iterable<Dir> shuffled() {
+	public static Iterable<Dir> shuffled(Random rnd) {
 		List<Dir> dirs = Arrays.asList(Dir.values());
-		Collections.shuffle(dirs);
+		Collections.shuffle(dirs, rnd);
 		return dirs;
 	}
 }
\ No newline at end of file
@@ -1,18 +1,35 @@
 package de.amr.mazes.simple.graph;
 
-import java.util.BitSet;
+import java.util.Arrays;
 
 /**
  * A mapping from vertices to directions.
  * <p>
- * Note that each vertex always is mapped to a direction, the default direction is <code>N</code>.
+ * Each direction is stored as its 2-bit ordinal, packed 32 to a <code>long</code>. Note that each
+ * vertex always is mapped to a direction, the default direction is <code>N</code>.
  * 
  * @author Armin Reichert
  */
 public class DirMap {
 
-	private final BitSet b0 = new BitSet();
-	private final BitSet b1 = new BitSet();
+	private long[] bits;
+
+	/**
+	 * Creates a map that grows as needed.
+	 */
+	public DirMap() {
+		this(0);
+	}
+
+	/**
+	 * Creates a map for the vertices {@code 0, ..., numVertices - 1}.
+	 * 
+	 * @param numVertices
+	 *                      number of vertices
+	 */
+	public DirMap(int numVertices) {
+		bits = new long[(numVertices + 31) >>> 5];
+	}
 
 	/**
 	 * Gets the direction for the given vertex.
@@ -22,12 +39,19 @@ public class DirMap {
 	 * @return the direction for this vertex
 	 */
 	public Dir get(int vertex) {
-		if (b0.get(vertex)) {
-			return b1.get(vertex) ? Dir.W : Dir.E;
-		}
-		else {
-			return b1.get(vertex) ? Dir.S : Dir.N;
-		}
+		return Dir.of(ordinal(vertex));
+	}
+
+	/**
+	 * Gets the ordinal of the direction for the given vertex.
+	 * 
+	 * @param vertex
+	 *                 a vertex
+	 * @return the direction ordinal for this vertex
+	 */
+	public int ordinal(int vertex) {
+		int word = vertex >>> 5;
+		return word < bits.length ? (int) (bits[word] >>> ((vertex & 31) << 1)) & 3 : 0;
 	}
 
 	/**
@@ -39,25 +63,10 @@ public class DirMap {
 	 *                 a direction
 	 */
 	public void set(int vertex, Dir dir) {
-		switch (dir) {
-		case N:
-			b1.clear(vertex);
-			b0.clear(vertex);
-			break;
-		case E:
-			b1.clear(vertex);
-			b0.set(vertex);
-			break;
-		case S:
-			b1.set(vertex);
-			b0.clear(vertex);
-			break;
-		case W:
-			b1.set(vertex);
-			b0.set(vertex);
-			break;
-		default:
-			throw new IllegalArgumentException("Illegal dir: " + dir);
+		int word = vertex >>> 5, shift = (vertex & 31) << 1;
+		if (word >= bits.length) {
+			bits = Arrays.copyOf(bits, Math.max(word + 1, 2 * bits.length));
 		}
+		bits[word] = bits[word] & ~(3L << shift) | (long) dir.ordinal() << shift;
 	}
-}
\ No newline at end of file
+}
@@ -3,8 +3,6 @@ package de.amr.mazes.simple.graph;
 import java.util.BitSet;
 import java.util.function.IntConsumer;
 
-import de.amr.datastruct.Partition;
-
 public class GraphFunctions {
 
 	public static void dfs(GridGraph grid, int vertex, BitSet visited, IntConsumer fnAction) {
@@ -20,13 +18,11 @@ public class GraphFunctions {
 	}
 
 	public static boolean containsCycle(GridGraph grid) {
-		Partition<Integer> p = new Partition<>();
+		UnionFind p = new UnionFind(grid.numVertices());
 		for (Edge edge : grid.edges()) {
-			int u = edge.either, v = edge.other;
-			if (p.find(u) == p.find(v)) {
+			if (!p.union(edge.either, edge.other)) {
 				return true;
 			}
-			p.union(u, v);
 		}
 		return false;
 	}
@@ -0,0 +1,47 @@
+package de.amr.mazes.simple.graph;
+
+import java.util.Arrays;
+import java.util.NoSuchElementException;
+import java.util.Random;
+
+/**
+ * Bag of int values stored in an int array. Adding a value and removing a random value take constant
+ * time: the removed value is replaced by the last one.
+ *
+ * @author Armin Reichert
+ */
+public class IntBag {
+
+	private int[] values = new int[16];
+	private int size;
+
+	public int size() {
+		return size;
+	}
+
+	public boolean isEmpty() {
+		return size == 0;
+	}
+
+	public void add(int value) {
+		if (size == values.length) {
+			values = Arrays.copyOf(values, 2 * values.length);
+		}
+		values[size++] = value;
+	}
+
+	/**
+	 * @param rnd
+	 *              random number generator
+	 * @return removes and returns a random value
+	 */
+	public int removeRandom(Random rnd) {
+		if (size == 0) {
+			throw new NoSuchElementException();
+		}
+		int i = rnd.nextInt(size);
+		int value = values[i];
+		values[i] = values[--size];
+		return value;
+	}
+}
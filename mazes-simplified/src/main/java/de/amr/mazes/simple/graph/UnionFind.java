@@ -0,0 +1,86 @@
+package de.amr.mazes.simple.graph;
+
+import java.util.Arrays;
+
+/**
+ * Disjoint sets ("union-find") of the vertices {@code 0, ..., n - 1} stored in int arrays, using
+ * path halving and union by size.
+ * <p>
+ * {@link #clear()} takes constant time: entries written before the last clear are recognized by
+ * their generation number and treated as singleton sets.
+ *
+ * @author Armin Reichert
+ */
+public class UnionFind {
+
+	private final int[] parent;
+	private final int[] size;
+	private final int[] generation;
+	private int currentGeneration = 1;
+
+	public UnionFind(int n) {
+		parent = new int[n];
+		size = new int[n];
+		generation = new int[n];
+	}
+
+	/**
+	 * Makes each vertex a singleton set again.
+	 */
+	public void clear() {
+		if (++currentGeneration == 0) {
+			Arrays.fill(generation, 0);
+			currentGeneration = 1;
+		}
+	}
+
+	/**
+	 * @param v
+	 *            a vertex
+	 * @return the representative vertex of the set containing {@code v}
+	 */
+	public int find(int v) {
+		if (generation[v] != currentGeneration) {
+			return v;
+		}
+		while (parent[v] != v) {
+			parent[v] = parent[parent[v]];
+			v = parent[v];
+		}
+		return v;
+	}
+
+	/**
+	 * Merges the sets containing the given vertices.
+	 *
+	 * @param u
+	 *            a vertex
+	 * @param v
+	 *            a vertex
+	 * @return {@code true} if the vertices were in different sets before
+	 */
+	public boolean union(int u, int v) {
+		int ru = find(u), rv = find(v);
+		if (ru == rv) {
+			return false;
+		}
+		makeCurrent(ru);
+		makeCurrent(rv);
+		if (size[ru] < size[rv]) {
+			int tmp = ru;
+			ru = rv;
+			rv = tmp;
+		}
+		parent[rv] = ru;
+		size[ru] += size[rv];
+		return true;
+	}
+
+	private void makeCurrent(int root) {
+		if (generation[root] != currentGeneration) {
+			generation[root] = currentGeneration;
+			parent[root] = root;
+			size[root] = 1;
+		}
+	}
+}
@@ -4,6 +4,7 @@ import static de.amr.mazes.simple.MazeAlgorithms.createMazeByAldousBroder;
 import static de.amr.mazes.simple.MazeAlgorithms.createMazeByBFS;
 import static de.amr.mazes.simple.MazeAlgorithms.createMazeByBinaryTree;
 import static de.amr.mazes.simple.MazeAlgorithms.createMazeByDFS;
+import static de.amr.mazes.simple.MazeAlgorithms.createMazeByDFSRecursive;
 import static de.amr.mazes.simple.MazeAlgorithms.createMazeByGrowingTree;
 import static de.amr.mazes.simple.MazeAlgorithms.createMazeByKruskal;
 import static de.amr.mazes.simple.MazeAlgorithms.createMazeByPrim;
@@ -13,6 +14,8 @@ import static de.amr.mazes.simple.MazeAlgorithms.createMazeByWilson;
 import static org.junit.Assert.assertEquals;
 import static org.junit.Assert.assertTrue;
 
+import java.util.BitSet;
+import java.util.Random;
 import java.util.function.Consumer;
 
 import org.junit.Test;
@@ -24,9 +27,9 @@ import de.amr.mazes.simple.graph.GridGraphImpl;
 public class LargeMazesTest {
 
 	static final int L = 100;
-	static final int M = 50;
+	static final Random RND = new Random();
 
-	static GridGraph test(String name, Consumer<GridGraph> generator, int rows, int cols) {
+	static long test(String name, Consumer<GridGraph> generator, int rows, int cols) {
 		GridGraph grid = new GridGraphImpl(rows, cols);
 		long start = System.nanoTime();
 		generator.accept(grid);
@@ -35,56 +38,82 @@ public class LargeMazesTest {
 				.println(String.format("%20s: %,d vertices (%d ms)", name, grid.numVertices(), time / 1_000_000));
 		assertEquals("Wrong #edges", grid.numVertices() - 1, grid.numEdges());
 		assertTrue(!GraphFunctions.containsCycle(grid));
-		return grid;
+		return time;
+	}
+
+	/**
+	 * Prints how the generator's running time grows with the number of cells by comparing grids of size
+	 * 1000x1000 and 2000x2000 (best of two runs after warm-up). For 4 times the cells, linear time grows
+	 * by 4, quadratic time by 16.
+	 */
+	static void benchmark_Scaling(String name, Consumer<GridGraph> generator) {
+		test(name, generator, 1000, 1000); // warm-up
+		long small = Math.min(test(name, generator, 1000, 1000), test(name, generator, 1000, 1000));
+		long large = Math.min(test(name, generator, 2000, 2000), test(name, generator, 2000, 2000));
+		System.out.println(String.format("%s: time ratio %.1f for 4 times the cells", name, (double) large / small));
 	}
 
 	@Test
 	public void test_DFS() {
-		test("DFS", grid -> createMazeByDFS(grid, 0), L, L);
+		test("DFS", grid -> createMazeByDFS(grid, 0, RND), L, L);
+	}
+
+	@Test
+	public void test_DFSRecursive_2000x2000() {
+		test("DFS recursive", grid -> createMazeByDFSRecursive(grid, 0, new BitSet(), RND), 2000, 2000);
 	}
 
 	@Test
 	public void test_BFS() {
-		test("BFS", grid -> createMazeByBFS(grid, 0), L, L);
+		test("BFS", grid -> createMazeByBFS(grid, 0, RND), L, L);
+	}
+
+	@Test
+	public void test_BFS_2000x2000() {
+		test("BFS", grid -> createMazeByBFS(grid, 0, RND), 2000, 2000);
+	}
+
+	public void benchmark_BFS_Scaling() {
+		benchmark_Scaling("BFS", grid -> createMazeByBFS(grid, 0, RND));
 	}
 
 	@Test
 	public void test_Kruskal() {
-		test("Kruskal", grid -> createMazeByKruskal(grid), L, L);
+		test("Kruskal", grid -> createMazeByKruskal(grid, RND), L, L);
 	}
 
 	@Test
 	public void test_Prim() {
-		test("Prim", grid -> createMazeByPrim(grid, 0), L, L);
+		test("Prim", grid -> createMazeByPrim(grid, 0, RND), L, L);
 	}
 
 	@Test
 	public void test_BinaryTree() {
-		test("Binary Tree", grid -> createMazeByBinaryTree(grid), L, L);
+		test("Binary Tree", grid -> createMazeByBinaryTree(grid, RND), L, L);
 	}
 
 	@Test
 	public void test_GrowingTree() {
-		test("Growing Tree", grid -> createMazeByGrowingTree(grid, 0), L, L);
+		test("Growing Tree", grid -> createMazeByGrowingTree(grid, 0, RND), L, L);
 	}
 
 	@Test
 	public void test_Sidewinder() {
-		test("Sidewinder", grid -> createMazeBySidewinder(grid), L, L);
+		test("Sidewinder", grid -> createMazeBySidewinder(grid, RND), L, L);
 	}
 
 	@Test
 	public void test_RecursiveDivision() {
-		test("Recursive Division", grid -> createMazeByRecursiveDivision(grid), L, L);
+		test("Recursive Division", grid -> createMazeByRecursiveDivision(grid, RND), L, L);
 	}
 
 	@Test
 	public void test_AldousBroder() {
-		test("Aldous Broder", grid -> createMazeByAldousBroder(grid, 0), M, M);
+		test("Aldous Broder", grid -> createMazeByAldousBroder(grid, 0, RND), L, L);
 	}
 
 	@Test
 	public void test_Wilson() {
-		test("Wilson", grid -> createMazeByWilson(grid), L, L);
+		test("Wilson", grid -> createMazeByWilson(grid, RND), L, L);
 	}
 }
\ No newline at end of file